@@ -0,0 +1,77 @@
+package Game;
+
+import java.util.List;
+
+// Runs expensive guard thinking (GuardVariant.plan) under a per-tick budget, so
+// many guards finishing their patrols at once spread their path searches over
+// several ticks instead of stalling one. Guards are visited round-robin from
+// where the previous tick stopped; whatever does not fit waits for the next tick.
+//
+// The budget is given in microseconds but charged in work units: every job
+// costs JOB_UNITS plus one unit per tile its path searches expanded, and
+// UNITS_PER_MICRO converts between the two (A* here expands roughly one tile
+// per 85 ns). Counting work instead of reading the clock keeps every run, live
+// or replayed, on the same schedule regardless of machine speed. A job that
+// starts under budget always finishes, and at least one job runs per tick.
+public class AIScheduler {
+    static final long DEFAULT_BUDGET_MICROS = 50;
+    static final int UNITS_PER_MICRO = 10;
+    static final int JOB_UNITS = 10;
+
+    private final long budgetUnits;
+    private int cursor = 0;
+
+    private long jobsRun = 0;
+    private long unitsSpent = 0;
+    private long ticksOverBudget = 0;
+
+    public AIScheduler() {
+        this(DEFAULT_BUDGET_MICROS);
+    }
+
+    public AIScheduler(long budgetMicros) {
+        this.budgetUnits = budgetMicros * UNITS_PER_MICRO;
+    }
+
+    public void run(List<GuardVariant> guards, SearchBlackboard search, GameClock clock) {
+        int count = guards.size();
+        if (count == 0) return;
+        if (cursor >= count) cursor = 0;
+
+        long spent = 0;
+        for (int scanned = 0; scanned < count; scanned++) {
+            if (spent >= budgetUnits) {
+                ticksOverBudget++;
+                break;
+            }
+
+            GuardVariant guard = guards.get(cursor);
+            cursor = (cursor + 1) % count;
+            if (guard.isPlanPending()) {
+                spent += JOB_UNITS + guard.plan(clock, search);
+                jobsRun++;
+            }
+        }
+        unitsSpent += spent;
+    }
+
+    public long getJobsRun() {
+        return jobsRun;
+    }
+
+    // Ticks that stopped with guards left unvisited, i.e. carried work over
+    public long getTicksOverBudget() {
+        return ticksOverBudget;
+    }
+
+    // Work units charged, see UNITS_PER_MICRO
+    public long getUnitsSpent() {
+        return unitsSpent;
+    }
+
+    public void resetCounters() {
+        jobsRun = 0;
+        unitsSpent = 0;
+        ticksOverBudget = 0;
+    }
+}
@@ -0,0 +1,10 @@
+package Game;
+
+// Player actions the simulation understands, independent of any input device
+public enum Action {
+    UP, DOWN, LEFT, RIGHT, HIDE, BOMB, INTERACT;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
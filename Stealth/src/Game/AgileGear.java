@@ -1,22 +1,9 @@
 // AgileGear.java
 package Game;
 
+// Names, descriptions and effects come from the agile.* gear definitions
 public class AgileGear extends Gear {
     public AgileGear(String type) {
-        switch(type) {
-            case "Boots":
-                this.name = "Swift Boots";
-                this.description = "Increases movement speed by 25% (stacks with class bonus)";
-                break;
-            case "Gloves":
-                this.name = "Grip Gloves";
-                this.description = "Allows climbing certain walls";
-                break;
-        }
+        super("agile." + type);
     }
-
-    @Override
-    public void applyEffect(Player player) {
-        // Effects will be applied in Player class
-    }
-}
\ No newline at end of file
+}
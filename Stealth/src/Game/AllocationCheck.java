@@ -0,0 +1,75 @@
+package Game;
+
+import java.lang.management.ManagementFactory;
+
+// Fails (exit status 1) if steady-state ticks allocate. Runs a world headless
+// with scripted input that walks, hides and throws cherry bombs, publishing a
+// render snapshot every tick as the game does, and measures this thread's
+// allocated bytes after a warm-up.
+// Usage: AllocationCheck [warm-up ticks] [measured ticks]
+public class AllocationCheck {
+    public static void main(String[] args) {
+        int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int measured = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            System.err.println("Per-thread allocation counters are not available on this JVM");
+            System.exit(2);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long threadId = Thread.currentThread().getId();
+
+        World world = new World("Sneaky", GameEvents.NONE, GameClock.simulated(), 1);
+        SnapshotBuffer snapshots = new SnapshotBuffer();
+        InputSnapshot[] script = buildScript();
+
+        run(world, snapshots, script, 0, warmup);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        run(world, snapshots, script, warmup, measured);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        System.out.printf("%d ticks allocated %d bytes (%.2f bytes/tick)%n",
+                          measured, allocated, (double) allocated / measured);
+        if (allocated > 0) {
+            System.err.println("FAIL: steady-state ticks allocate");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    private static void run(World world, SnapshotBuffer snapshots, InputSnapshot[] script,
+                            int firstTick, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            world.setInput(script[(firstTick + i) % script.length]);
+            world.tick();
+            if (world.isSpotted()) world.resetLevel();
+
+            snapshots.back().copyFrom(world, false);
+            snapshots.publish();
+            snapshots.latest();
+        }
+    }
+
+    // Two seconds in each direction, with a bomb and a hide attempt along the way;
+    // built once up front so the loop itself reuses the same snapshots
+    private static InputSnapshot[] buildScript() {
+        Action[] moves = {Action.RIGHT, Action.DOWN, Action.LEFT, Action.UP};
+        int legTicks = GameClock.TICKS_PER_SECOND * 2;
+        InputSnapshot[] script = new InputSnapshot[moves.length * legTicks];
+
+        int held = 0;
+        for (int leg = 0; leg < moves.length; leg++) {
+            for (int t = 0; t < legTicks; t++) {
+                int bits = moves[leg].bit();
+                if (t == 10) bits |= Action.BOMB.bit();
+                if (t == 30) bits |= Action.HIDE.bit();
+                int pressed = bits & ~held;
+                script[leg * legTicks + t] = new InputSnapshot(bits, pressed, held & ~bits);
+                held = bits;
+            }
+        }
+        return script;
+    }
+}
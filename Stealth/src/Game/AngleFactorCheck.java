@@ -0,0 +1,97 @@
+package Game;
+
+import java.util.Random;
+
+// Fails (exit status 1) if the trig-free cone test drifts from the original
+// atan2 one by more than TOLERANCE anywhere, then times both. Facings and
+// targets are random, with half the targets aimed inside the cone so the
+// falloff band is well covered.
+// Usage: AngleFactorCheck [samples] [rounds]
+public class AngleFactorCheck {
+    static final double TOLERANCE = 1e-3;
+
+    public static void main(String[] args) {
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Random random = new Random(3);
+        double[] dx = new double[samples];
+        double[] dy = new double[samples];
+        double[] facingX = new double[samples];
+        double[] facingY = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            double facing = random.nextDouble() * 2 * Math.PI;
+            double offset = i % 2 == 0 ? (random.nextDouble() * 2 - 1) * Math.PI
+                                       : (random.nextDouble() * 2 - 1) * Math.toRadians(GuardVariant.FIELD_OF_VIEW / 2);
+            double distance = 1 + random.nextDouble() * 300;
+            facingX[i] = Math.cos(facing);
+            facingY[i] = Math.sin(facing);
+            dx[i] = distance * Math.cos(facing + offset);
+            dy[i] = distance * Math.sin(facing + offset);
+        }
+
+        double worst = 0;
+        int worstAt = 0;
+        for (int i = 0; i < samples; i++) {
+            double deviation = Math.abs(GuardVariant.angleFactor(dx[i], dy[i], facingX[i], facingY[i])
+                                        - reference(dx[i], dy[i], facingX[i], facingY[i]));
+            if (deviation > worst) {
+                worst = deviation;
+                worstAt = i;
+            }
+        }
+        System.out.printf("max deviation from the atan2 version: %.2e (at %.2f degrees off facing)%n", worst,
+                          Math.toDegrees(Math.acos((dx[worstAt] * facingX[worstAt] + dy[worstAt] * facingY[worstAt])
+                                                   / Math.hypot(dx[worstAt], dy[worstAt]))));
+
+        for (int round = 0; round < rounds; round++) {
+            double sink = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < samples; i++) {
+                sink += GuardVariant.angleFactor(dx[i], dy[i], facingX[i], facingY[i]);
+            }
+            long table = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < samples; i++) {
+                sink += reference(dx[i], dy[i], facingX[i], facingY[i]);
+            }
+            long atan2 = System.nanoTime() - start;
+            System.out.printf("round %d: %.1f ns per call, atan2 version %.1f ns (%.1fx) (checksum %.1f)%n",
+                              round + 1, (double) table / samples, (double) atan2 / samples,
+                              (double) atan2 / table, sink);
+        }
+
+        if (worst > TOLERANCE) {
+            System.err.println("FAIL: cone falloff deviates from the original curve");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    // getDetectionAngleFactor as it was before facings became unit vectors
+    private static double reference(double dx, double dy, double facingX, double facingY) {
+        double facingAngle = Math.toDegrees(Math.atan2(facingY, facingX));
+        double angleToPlayer = Math.toDegrees(Math.atan2(dy, dx));
+        double angleDiff = Math.abs(normalizeAngle(angleToPlayer - facingAngle));
+
+        if (angleDiff > GuardVariant.FIELD_OF_VIEW / 2) {
+            return 0;
+        } else if (angleDiff <= GuardVariant.DIRECT_VIEW_ANGLE / 2) {
+            return 1.0;
+        } else {
+            return 1.0 - ((angleDiff - GuardVariant.DIRECT_VIEW_ANGLE / 2)
+                          / (GuardVariant.FIELD_OF_VIEW / 2 - GuardVariant.DIRECT_VIEW_ANGLE / 2));
+        }
+    }
+
+    private static double normalizeAngle(double angle) {
+        angle = angle % 360;
+        if (angle > 180) {
+            angle -= 360;
+        } else if (angle < -180) {
+            angle += 360;
+        }
+        return angle;
+    }
+}
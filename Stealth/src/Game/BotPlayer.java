@@ -0,0 +1,199 @@
+package Game;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Plays a World headless by choosing the input for each tick, the way a player
+// at the keyboard would: it only steers with Action keys and goes through the
+// same Player and GuardVariant rules. Every few ticks it plans a route to the
+// exit over open tiles with Dijkstra, each tile costing more the higher its
+// InfluenceMap danger, then walks it tile centre to tile centre. It holds back
+// when the next tile is much hotter than the one it is on, throws a cherry bomb
+// when it has to step into plain view, and presses INTERACT on the exit.
+//
+// The bot's own Random perturbs tile costs and its nerve, so repeated runs on
+// one level take different lines; a bot seed reproduces its run exactly.
+public class BotPlayer {
+    static final int REPLAN_TICKS = 15;
+    static final int MAX_WAIT_TICKS = 90;
+    static final int STUCK_TICKS = 30;
+
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+    private static final int STEP_COST = 16;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final Random rand;
+    // How much danger the bot will walk through: higher is more careful
+    private final int dangerCost;
+    private final double waitThreshold;
+    private final double bombThreshold;
+
+    private final int[] cost = new int[TILE_COUNT];
+    private final int[] parent = new int[TILE_COUNT];
+    private final int[] heapCost = new int[TILE_COUNT * 4];
+    private final int[] heapTile = new int[TILE_COUNT * 4];
+    private int heapSize = 0;
+
+    private final int[] route = new int[TILE_COUNT];
+    private int routeLength = 0;
+    private int routeIndex = 0;
+    private int ticksSincePlan = REPLAN_TICKS;
+    private int waited = 0;
+    private int stuck = 0;
+    private double lastX = Double.NaN;
+    private double lastY = Double.NaN;
+
+    public BotPlayer(long seed) {
+        this.rand = new Random(seed);
+        this.dangerCost = 60 + rand.nextInt(120);
+        this.waitThreshold = 0.35 + rand.nextDouble() * 0.3;
+        this.bombThreshold = 0.7 + rand.nextDouble() * 0.25;
+    }
+
+    public InputSnapshot decide(World world) {
+        Player player = world.getPlayer();
+        LevelGenerator level = world.getLevel();
+        InfluenceMap influence = world.getInfluence();
+
+        int tileX = (int) (player.getX() / LevelGenerator.TILE_SIZE);
+        int tileY = (int) (player.getY() / LevelGenerator.TILE_SIZE);
+        if (world.isPlayerAtExit()) {
+            return new InputSnapshot(Action.INTERACT.bit(), 0, 0);
+        }
+
+        if (player.getX() == lastX && player.getY() == lastY) {
+            stuck++;
+        } else {
+            stuck = 0;
+        }
+        lastX = player.getX();
+        lastY = player.getY();
+
+        if (++ticksSincePlan >= REPLAN_TICKS || routeIndex >= routeLength || stuck >= STUCK_TICKS) {
+            plan(level, influence, tileX, tileY);
+            ticksSincePlan = 0;
+            stuck = 0;
+        }
+        if (routeIndex >= routeLength) return InputSnapshot.NONE;
+
+        // Arrived at the current route tile: aim for the next one
+        int target = route[routeIndex];
+        double targetX = (target % LevelGenerator.WIDTH + 0.5) * LevelGenerator.TILE_SIZE;
+        double targetY = (target / LevelGenerator.WIDTH + 0.5) * LevelGenerator.TILE_SIZE;
+        double tolerance = Math.max(2.0, 3.0 * player.getStats().getSpeedMultiplier());
+        if (Math.abs(targetX - player.getX()) <= tolerance && Math.abs(targetY - player.getY()) <= tolerance
+            && routeIndex + 1 < routeLength) {
+            target = route[++routeIndex];
+            targetX = (target % LevelGenerator.WIDTH + 0.5) * LevelGenerator.TILE_SIZE;
+            targetY = (target / LevelGenerator.WIDTH + 0.5) * LevelGenerator.TILE_SIZE;
+        }
+
+        double here = influence.getDanger(tileX, tileY);
+        double ahead = influence.getDanger(target % LevelGenerator.WIDTH, target / LevelGenerator.WIDTH);
+        int held = 0;
+        if (ahead >= bombThreshold && player.getCherryBombs() > 0 && world.getCherryBombLayer().isEmpty()) {
+            held |= Action.BOMB.bit();
+        } else if (ahead >= waitThreshold && ahead > here + 0.2 && waited < MAX_WAIT_TICKS) {
+            waited++;
+            return InputSnapshot.NONE;
+        }
+        waited = 0;
+
+        double dx = targetX - player.getX();
+        double dy = targetY - player.getY();
+        if (dx > tolerance / 2) held |= Action.RIGHT.bit();
+        if (dx < -tolerance / 2) held |= Action.LEFT.bit();
+        if (dy > tolerance / 2) held |= Action.DOWN.bit();
+        if (dy < -tolerance / 2) held |= Action.UP.bit();
+        return new InputSnapshot(held, 0, 0);
+    }
+
+    // Cheapest route from the player's tile to the exit, where each step costs
+    // STEP_COST plus the danger of the tile stepped onto and a little noise
+    private void plan(LevelGenerator level, InfluenceMap influence, int startX, int startY) {
+        routeLength = 0;
+        routeIndex = 0;
+        if (!inBounds(startX, startY)) return;
+
+        int start = startY * LevelGenerator.WIDTH + startX;
+        int exit = level.getExitY() * LevelGenerator.WIDTH + level.getExitX();
+        Arrays.fill(cost, UNREACHED);
+        cost[start] = 0;
+        parent[start] = -1;
+        heapSize = 0;
+        push(0, start);
+
+        while (heapSize > 0) {
+            int c = heapCost[0];
+            int tile = pop();
+            if (c > cost[tile]) continue;
+            if (tile == exit) break;
+
+            int tx = tile % LevelGenerator.WIDTH;
+            int ty = tile / LevelGenerator.WIDTH;
+            relax(level, influence, tile, tx - 1, ty);
+            relax(level, influence, tile, tx + 1, ty);
+            relax(level, influence, tile, tx, ty - 1);
+            relax(level, influence, tile, tx, ty + 1);
+        }
+        if (cost[exit] == UNREACHED) return;
+
+        for (int tile = exit; tile != -1; tile = parent[tile]) {
+            routeLength++;
+        }
+        int index = routeLength - 1;
+        for (int tile = exit; tile != -1; tile = parent[tile]) {
+            route[index--] = tile;
+        }
+        // The first entry is the tile already stood on
+        routeIndex = routeLength > 1 ? 1 : 0;
+    }
+
+    private void relax(LevelGenerator level, InfluenceMap influence, int from, int tx, int ty) {
+        if (!level.isWalkable(tx, ty)) return;
+
+        int tile = ty * LevelGenerator.WIDTH + tx;
+        int next = cost[from] + STEP_COST + (int) (dangerCost * influence.getDanger(tx, ty)) + rand.nextInt(4);
+        if (next >= cost[tile]) return;
+        cost[tile] = next;
+        parent[tile] = from;
+        push(next, tile);
+    }
+
+    private void push(int c, int tile) {
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapCost[up] <= c) break;
+            heapCost[i] = heapCost[up];
+            heapTile[i] = heapTile[up];
+            i = up;
+        }
+        heapCost[i] = c;
+        heapTile[i] = tile;
+    }
+
+    private int pop() {
+        int top = heapTile[0];
+        int lastCost = heapCost[--heapSize];
+        int lastTile = heapTile[heapSize];
+
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapCost[child + 1] < heapCost[child]) child++;
+            if (heapCost[child] >= lastCost) break;
+            heapCost[i] = heapCost[child];
+            heapTile[i] = heapTile[child];
+            i = child;
+        }
+        heapCost[i] = lastCost;
+        heapTile[i] = lastTile;
+        return top;
+    }
+
+    private static boolean inBounds(int x, int y) {
+        return x >= 0 && x < LevelGenerator.WIDTH && y >= 0 && y < LevelGenerator.HEIGHT;
+    }
+}
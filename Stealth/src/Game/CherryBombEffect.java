@@ -1,50 +1,24 @@
 package Game;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
-
+// Cherry bombs are plain entities: a position, an area and a lifetime. This is
+// the archetype that spawns them; LifetimeSystem removes them when they expire.
 public class CherryBombEffect {
-    private double x, y;
-    private long startTime;
-    private boolean active = true;
-    private double radius;
-    
-    public CherryBombEffect(double x, double y) {
-        this.x = x;
-        this.y = y;
-        this.startTime = System.currentTimeMillis();
-        this.radius = 100;
-    }
-    
-    public void update() {
-        if (System.currentTimeMillis() - startTime > 5000) {
-            active = false;
-        }
-    }
-    
-    public void render(GraphicsContext gc) {
-        double progress = (System.currentTimeMillis() - startTime) / 5000.0;
-        double alpha = 0.6 * (1 - progress);
-        
-        gc.setFill(Color.rgb(255, 100, 100, alpha));
-        gc.fillOval(x - radius, y - radius, radius * 2, radius * 2);
-        
-        gc.setStroke(Color.rgb(200, 50, 50, alpha * 0.8));
-        gc.setLineWidth(1);
-        gc.strokeOval(x - radius, y - radius, radius * 2, radius * 2);
-    }
-    
-    public boolean isActive() { 
-        return active; 
+    public static final long DURATION = 5000;
+    public static final double RADIUS = 100;
+
+    private static final int COMPONENTS = EntityStore.POSITION | EntityStore.AREA | EntityStore.LIFETIME;
+
+    public static int spawn(EntityStore entities, double x, double y, long startTime) {
+        int id = entities.create(COMPONENTS);
+        entities.setPosition(id, x, y, 0, 0);
+
+        int row = entities.rowOf(id);
+        entities.areaRadius[row] = RADIUS;
+        entities.startTime[row] = startTime;
+        entities.expiresAt[row] = startTime + DURATION;
+        return id;
     }
-    
-    public boolean affectsGuard(GuardVariant guard) {
-        if (!active) return false;
-        
-        double dx = guard.getX() - x;
-        double dy = guard.getY() - y;
-        double distanceSq = dx * dx + dy * dy;
-        
-        return distanceSq <= (radius * radius);
+
+    private CherryBombEffect() {
     }
-}
\ No newline at end of file
+}
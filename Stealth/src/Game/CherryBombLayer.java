@@ -0,0 +1,83 @@
+package Game;
+
+// Per-tile coverage of active cherry bombs. Bomb areas are rasterised when a bomb
+// is thrown and removed when it expires, so guard queries and rendering are tile
+// lookups instead of a distance test per bomb.
+public class CherryBombLayer {
+    private final int[] coverage = new int[LevelGenerator.WIDTH * LevelGenerator.HEIGHT];
+    // Start time of the newest bomb covering each tile, used for the fade-out
+    private final long[] newestStart = new long[LevelGenerator.WIDTH * LevelGenerator.HEIGHT];
+    private int activeBombs = 0;
+
+    // Bombs are read from their entity rows: position, AREA radius and LIFETIME start
+    public void add(EntityStore entities, int row) {
+        rasterise(entities.x[row], entities.y[row], entities.areaRadius[row], entities.startTime[row], 1);
+        activeBombs++;
+    }
+
+    public void remove(EntityStore entities, int row) {
+        rasterise(entities.x[row], entities.y[row], entities.areaRadius[row], entities.startTime[row], -1);
+        activeBombs--;
+    }
+
+    public void clear() {
+        for (int i = 0; i < coverage.length; i++) {
+            coverage[i] = 0;
+            newestStart[i] = 0;
+        }
+        activeBombs = 0;
+    }
+
+    private void rasterise(double bombX, double bombY, double radius, long startTime, int delta) {
+        double radiusSq = radius * radius;
+        int minX = Math.max(0, (int) ((bombX - radius) / LevelGenerator.TILE_SIZE));
+        int maxX = Math.min(LevelGenerator.WIDTH - 1, (int) ((bombX + radius) / LevelGenerator.TILE_SIZE));
+        int minY = Math.max(0, (int) ((bombY - radius) / LevelGenerator.TILE_SIZE));
+        int maxY = Math.min(LevelGenerator.HEIGHT - 1, (int) ((bombY + radius) / LevelGenerator.TILE_SIZE));
+
+        for (int ty = minY; ty <= maxY; ty++) {
+            for (int tx = minX; tx <= maxX; tx++) {
+                double dx = (tx + 0.5) * LevelGenerator.TILE_SIZE - bombX;
+                double dy = (ty + 0.5) * LevelGenerator.TILE_SIZE - bombY;
+                if (dx * dx + dy * dy > radiusSq) continue;
+
+                int index = ty * LevelGenerator.WIDTH + tx;
+                coverage[index] += delta;
+                if (delta > 0) {
+                    newestStart[index] = Math.max(newestStart[index], startTime);
+                } else if (coverage[index] == 0) {
+                    // Bombs all last the same time and expire oldest first, so the
+                    // newest start only needs resetting once nothing covers the tile
+                    newestStart[index] = 0;
+                }
+            }
+        }
+    }
+
+    public boolean covers(double x, double y) {
+        int tx = (int) (x / LevelGenerator.TILE_SIZE);
+        int ty = (int) (y / LevelGenerator.TILE_SIZE);
+        return getCoverage(tx, ty) > 0;
+    }
+
+    // Bomb areas are tested against the guard's top-left corner
+    public boolean coversGuard(GuardVariant guard) {
+        return activeBombs > 0 && covers(guard.getX(), guard.getY());
+    }
+
+    public int getCoverage(int tx, int ty) {
+        if (tx < 0 || tx >= LevelGenerator.WIDTH || ty < 0 || ty >= LevelGenerator.HEIGHT) return 0;
+        return coverage[ty * LevelGenerator.WIDTH + tx];
+    }
+
+    public boolean isEmpty() {
+        return activeBombs == 0;
+    }
+
+    // Remaining strength of the newest bomb over a tile, 1 when thrown and 0 when expired
+    public double getStrength(int tx, int ty, long now) {
+        if (getCoverage(tx, ty) == 0) return 0;
+        double progress = (now - newestStart[ty * LevelGenerator.WIDTH + tx]) / (double) CherryBombEffect.DURATION;
+        return 1 - Math.min(1.0, progress);
+    }
+}
@@ -0,0 +1,20 @@
+package Game;
+
+import java.util.List;
+
+// One [class ...] entry: the class's own speed bonus and the gear it starts with
+public final class ClassDefinition {
+    private final String name;
+    private final double speedMultiplier;
+    private final List<String> gear;
+
+    public ClassDefinition(String name, double speedMultiplier, List<String> gear) {
+        this.name = name;
+        this.speedMultiplier = speedMultiplier;
+        this.gear = List.copyOf(gear);
+    }
+
+    public String getName() { return name; }
+    public double getSpeedMultiplier() { return speedMultiplier; }
+    public List<String> getGear() { return gear; }
+}
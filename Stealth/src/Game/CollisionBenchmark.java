@@ -0,0 +1,46 @@
+package Game;
+
+import java.util.Random;
+
+// Collision queries per second for the tile physics, headless.
+// Usage: CollisionBenchmark [queries per round] [rounds]
+public class CollisionBenchmark {
+    public static void main(String[] args) {
+        int queries = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        LevelGenerator level = new LevelGenerator(1);
+        PhysicsSystem physics = new TileCollisionSystem();
+        PhysicsSystem.Contact contact = new PhysicsSystem.Contact();
+
+        // Precomputed starts and moves so the loop measures only the sweep
+        Random random = new Random(2);
+        int samples = 4096;
+        double[] startX = new double[samples];
+        double[] startY = new double[samples];
+        double[] moveX = new double[samples];
+        double[] moveY = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            int[] tile = level.getRandomFloorPosition(random);
+            startX[i] = tile[0] * LevelGenerator.TILE_SIZE + random.nextDouble() * 8;
+            startY[i] = tile[1] * LevelGenerator.TILE_SIZE + random.nextDouble() * 8;
+            moveX[i] = (random.nextDouble() * 2 - 1) * 24;
+            moveY[i] = (random.nextDouble() * 2 - 1) * 24;
+        }
+
+        double sink = 0;
+        int hits = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                int i = q & (samples - 1);
+                physics.move(level, startX[i], startY[i], 23, 23, moveX[i], moveY[i], contact);
+                sink += contact.x + contact.y;
+                if (contact.hitX || contact.hitY) hits++;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("round %d: %.1f M queries/s%n", round + 1, queries / seconds / 1e6);
+        }
+        System.out.printf("%d blocked moves (checksum %.1f)%n", hits, sink);
+    }
+}
@@ -0,0 +1,54 @@
+package Game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded single-producer/single-consumer ring of encoded GameCommands. The UI
+// thread offers, the simulation polls at tick boundaries; the only
+// synchronisation is the ordered write of each side's index.
+public class CommandQueue {
+    public static final long EMPTY = -1;
+
+    private final long[] buffer;
+    private final int mask;
+
+    // Next slot to read, written only by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, written only by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    // Each side's last view of the other's index, refreshed only when it looks full/empty
+    private long producerHeadCache = 0;
+    private long consumerTailCache = 0;
+
+    public CommandQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.buffer = new long[size];
+        this.mask = size - 1;
+    }
+
+    public boolean offer(long command) {
+        long t = tail.get();
+        if (t - producerHeadCache >= buffer.length) {
+            producerHeadCache = head.get();
+            if (t - producerHeadCache >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) t & mask] = command;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    public long poll() {
+        long h = head.get();
+        if (h >= consumerTailCache) {
+            consumerTailCache = tail.get();
+            if (h >= consumerTailCache) {
+                return EMPTY;
+            }
+        }
+        long command = buffer[(int) h & mask];
+        head.lazySet(h + 1);
+        return command;
+    }
+}
@@ -0,0 +1,301 @@
+package Game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Loads GameContent. The text definitions are the source of truth; the first
+// load after they change parses them and writes a binary cache, and later loads
+// memory-map that cache instead of parsing. The cache header carries a CRC of
+// the text it was built from, so an edited file is always picked up.
+//
+// -Dstealth.content=<file> loads definitions from a file instead of the bundled
+// resource, and -Dstealth.contentCache=<file> moves the cache.
+public class ContentLoader {
+    private static final String RESOURCE = "/content/definitions.txt";
+    private static final int MAGIC = 0x53544C43; // "STLC"
+    private static final int VERSION = 2;
+
+    public static GameContent load() {
+        byte[] source = readSource();
+        long checksum = checksum(source);
+        Path cache = cachePath();
+
+        GameContent cached = readCache(cache, checksum);
+        if (cached != null) return cached;
+
+        GameContent content = parse(new String(source, StandardCharsets.UTF_8));
+        writeCache(cache, checksum, content);
+        return content;
+    }
+
+    private static byte[] readSource() {
+        String override = System.getProperty("stealth.content");
+        try {
+            if (override != null) {
+                return Files.readAllBytes(Paths.get(override));
+            }
+            try (InputStream in = ContentLoader.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing content definitions " + RESOURCE);
+                }
+                return in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read content definitions: " + e.getMessage(), e);
+        }
+    }
+
+    private static Path cachePath() {
+        String override = System.getProperty("stealth.contentCache");
+        if (override != null) return Paths.get(override);
+        return Paths.get(System.getProperty("user.home"), ".stealth", "content.bin");
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    // Text format
+
+    static GameContent parse(String text) {
+        Map<String, GearDefinition> gear = new LinkedHashMap<>();
+        Map<String, ClassDefinition> classes = new LinkedHashMap<>();
+        GuardDefinition guard = null;
+
+        String header = null;
+        int headerLine = 0;
+        Map<String, String> values = new LinkedHashMap<>();
+
+        String[] lines = text.split("\r?\n");
+        for (int i = 0; i <= lines.length; i++) {
+            String line = i < lines.length ? lines[i].trim() : "[end]";
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            if (line.startsWith("[") && line.endsWith("]")) {
+                if (header != null) {
+                    String[] parts = header.split("\\s+", 2);
+                    String name = parts.length > 1 ? parts[1] : null;
+                    switch (parts[0]) {
+                        case "gear":
+                            gear.put(requireName(name, headerLine), gearFrom(name, values, headerLine));
+                            break;
+                        case "class":
+                            classes.put(requireName(name, headerLine), classFrom(name, values, headerLine));
+                            break;
+                        case "guard":
+                            guard = guardFrom(values, headerLine);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Line " + headerLine + ": unknown section [" + header + "]");
+                    }
+                }
+                header = line.substring(1, line.length() - 1).trim();
+                headerLine = i + 1;
+                values = new LinkedHashMap<>();
+                continue;
+            }
+
+            int equals = line.indexOf('=');
+            if (equals < 0 || header == null) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": expected key = value inside a section");
+            }
+            values.put(line.substring(0, equals).trim(), line.substring(equals + 1).trim());
+        }
+
+        if (guard == null) {
+            throw new IllegalArgumentException("Content definitions have no [guard] section");
+        }
+        for (ClassDefinition playerClass : classes.values()) {
+            for (String id : playerClass.getGear()) {
+                if (!gear.containsKey(id)) {
+                    throw new IllegalArgumentException("Class " + playerClass.getName() + " uses unknown gear " + id);
+                }
+            }
+        }
+        return new GameContent(gear, classes, guard);
+    }
+
+    private static String requireName(String name, int line) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Line " + line + ": section needs a name");
+        }
+        return name;
+    }
+
+    private static GearDefinition gearFrom(String id, Map<String, String> values, int line) {
+        return new GearDefinition(id,
+            values.getOrDefault("name", id),
+            values.getOrDefault("description", ""),
+            number(values, "speed", 1, line),
+            number(values, "detectionRadius", 1, line),
+            number(values, "hideCooldown", 1, line),
+            number(values, "footsteps", 1, line));
+    }
+
+    private static ClassDefinition classFrom(String name, Map<String, String> values, int line) {
+        List<String> gear = new ArrayList<>();
+        String list = values.get("gear");
+        if (list != null) {
+            for (String id : list.split(",")) {
+                if (!id.trim().isEmpty()) gear.add(id.trim());
+            }
+        }
+        return new ClassDefinition(name, number(values, "speed", 1, line), gear);
+    }
+
+    private static GuardDefinition guardFrom(Map<String, String> values, int line) {
+        return new GuardDefinition(
+            number(values, "size", 32, line),
+            number(values, "standingRadius", 100, line),
+            number(values, "movingRadius", 60, line),
+            number(values, "movingSpeed", 1.5, line),
+            (long) number(values, "distractionMs", 3000, line));
+    }
+
+    private static double number(Map<String, String> values, String key, double fallback, int line) {
+        String value = values.get(key);
+        if (value == null) return fallback;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Section at line " + line + ": " + key + " is not a number: " + value);
+        }
+    }
+
+    // Binary cache
+
+    private static GameContent readCache(Path cache, long checksum) {
+        if (!Files.isRegularFile(cache)) return null;
+
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != checksum) {
+                return null;
+            }
+            return decode(buffer);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Ignoring unreadable content cache " + cache + ": " + e);
+            return null;
+        }
+    }
+
+    private static GameContent decode(ByteBuffer buffer) {
+        Map<String, GearDefinition> gear = new LinkedHashMap<>();
+        int gearCount = buffer.getInt();
+        for (int i = 0; i < gearCount; i++) {
+            GearDefinition definition = new GearDefinition(readString(buffer), readString(buffer),
+                readString(buffer), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                buffer.getDouble());
+            gear.put(definition.getId(), definition);
+        }
+
+        Map<String, ClassDefinition> classes = new LinkedHashMap<>();
+        int classCount = buffer.getInt();
+        for (int i = 0; i < classCount; i++) {
+            String name = readString(buffer);
+            double speed = buffer.getDouble();
+            int items = buffer.getInt();
+            List<String> ids = new ArrayList<>(items);
+            for (int j = 0; j < items; j++) {
+                ids.add(readString(buffer));
+            }
+            classes.put(name, new ClassDefinition(name, speed, ids));
+        }
+
+        GuardDefinition guard = new GuardDefinition(buffer.getDouble(), buffer.getDouble(),
+            buffer.getDouble(), buffer.getDouble(), buffer.getLong());
+        return new GameContent(gear, classes, guard);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeCache(Path cache, long checksum, GameContent content) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checksum);
+
+            out.writeInt(content.getGear().size());
+            for (GearDefinition gear : content.getGear().values()) {
+                writeString(out, gear.getId());
+                writeString(out, gear.getName());
+                writeString(out, gear.getDescription());
+                out.writeDouble(gear.getSpeedMultiplier());
+                out.writeDouble(gear.getDetectionRadiusMultiplier());
+                out.writeDouble(gear.getHideCooldownMultiplier());
+                out.writeDouble(gear.getFootstepMultiplier());
+            }
+
+            out.writeInt(content.getClasses().size());
+            for (ClassDefinition playerClass : content.getClasses().values()) {
+                writeString(out, playerClass.getName());
+                out.writeDouble(playerClass.getSpeedMultiplier());
+                out.writeInt(playerClass.getGear().size());
+                for (String id : playerClass.getGear()) {
+                    writeString(out, id);
+                }
+            }
+
+            GuardDefinition guard = content.guard();
+            out.writeDouble(guard.getSize());
+            out.writeDouble(guard.getStandingRadius());
+            out.writeDouble(guard.getMovingRadius());
+            out.writeDouble(guard.getMovingSpeed());
+            out.writeLong(guard.getDistractionMs());
+            out.flush();
+
+            // Write beside the cache and move into place so a reader never maps half a file
+            Path parent = cache.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "content", ".tmp");
+            try {
+                Files.write(temp, bytes.toByteArray());
+                try {
+                    Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    // The version and checksum header still reject a torn file
+                    Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write content cache " + cache + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("Content string too long: " + value.substring(0, 32) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,110 @@
+package Game;
+
+import java.util.Random;
+
+// Radius and cone prefilter throughput, scalar kernel against the Vector API
+// kernel, for growing guard counts, headless. Prints the smallest count from
+// which the vector kernel stays at least 10% ahead, which is what
+// DetectionPrefilter.VECTOR_MIN_GUARDS should be. Every run also checks that
+// both kernels pass the same guards.
+// Run with --add-modules jdk.incubator.vector, or only the scalar kernel is timed.
+// Usage: DetectionBenchmark [largest guard count] [guard tests per measurement]
+public class DetectionBenchmark {
+    // Summed survivor counts, printed so the timed calls cannot be dropped
+    private static long checksum = 0;
+    private static final int ROUNDS = 4;
+
+    public static void main(String[] args) {
+        int largest = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        long tests = args.length > 1 ? Long.parseLong(args[1]) : 50_000_000L;
+
+        DetectionPrefilter.Kernel vector = DetectionPrefilter.VECTOR;
+        if (vector == null) {
+            System.out.println("jdk.incubator.vector is not loaded; timing the scalar kernel only");
+        }
+
+        // Guards scattered round the player; about one in twenty passes
+        Random random = new Random(4);
+        double[] centerX = new double[largest];
+        double[] centerY = new double[largest];
+        double[] facingX = new double[largest];
+        double[] facingY = new double[largest];
+        double[] radiusSq = new double[largest];
+        int[] scalarOut = new int[largest];
+        int[] vectorOut = new int[largest];
+        for (int i = 0; i < largest; i++) {
+            centerX[i] = random.nextDouble() * 600;
+            centerY[i] = random.nextDouble() * 600;
+            double angle = random.nextDouble() * 2 * Math.PI;
+            facingX[i] = Math.cos(angle);
+            facingY[i] = Math.sin(angle);
+            radiusSq[i] = random.nextInt(8) == 0 ? -1 : 150 * 150;
+        }
+
+        int crossover = -1;
+        for (int count = 4; count <= largest; count *= 2) {
+            int calls = (int) Math.max(1, tests / count);
+            if (vector == null) {
+                double scalarNs = Double.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    double ns = time(DetectionPrefilter.SCALAR, calls, count, centerX, centerY,
+                                     facingX, facingY, radiusSq, scalarOut);
+                    if (round > 0) scalarNs = Math.min(scalarNs, ns);
+                }
+                System.out.printf("%5d guards: scalar %.2f ns per guard%n", count, scalarNs);
+                continue;
+            }
+
+            // Alternated so drift in clock speed or JIT state hits both alike;
+            // the first round of each is warm-up
+            double scalarNs = Double.MAX_VALUE;
+            double vectorNs = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                double scalar = time(DetectionPrefilter.SCALAR, calls, count, centerX, centerY,
+                                     facingX, facingY, radiusSq, scalarOut);
+                double vectorized = time(vector, calls, count, centerX, centerY,
+                                         facingX, facingY, radiusSq, vectorOut);
+                if (round > 0) {
+                    scalarNs = Math.min(scalarNs, scalar);
+                    vectorNs = Math.min(vectorNs, vectorized);
+                }
+            }
+
+            int survivors = DetectionPrefilter.SCALAR.filter(300, 300, centerX, centerY, facingX, facingY,
+                                                             radiusSq, count, scalarOut);
+            int vectorSurvivors = vector.filter(300, 300, centerX, centerY, facingX, facingY,
+                                                radiusSq, count, vectorOut);
+            boolean same = survivors == vectorSurvivors;
+            for (int i = 0; same && i < survivors; i++) {
+                same = scalarOut[i] == vectorOut[i];
+            }
+            if (!same) {
+                System.err.println("FAIL: kernels disagree at " + count + " guards");
+                System.exit(1);
+            }
+
+            // Ties within timing noise do not count as a win
+            boolean wins = vectorNs < 0.9 * scalarNs;
+            if (crossover < 0 && wins) crossover = count;
+            if (crossover > 0 && !wins) crossover = -1;
+            System.out.printf("%5d guards: scalar %.2f ns per guard, vector %.2f ns (%.2fx), %d pass%n",
+                              count, scalarNs, vectorNs, scalarNs / vectorNs, survivors);
+        }
+        if (vector != null) {
+            System.out.println(crossover > 0 ? "vector kernel is faster from " + crossover + " guards"
+                                             : "vector kernel never stays ahead");
+        }
+        System.out.println("checksum " + checksum);
+    }
+
+    private static double time(DetectionPrefilter.Kernel kernel, int calls, int count,
+                               double[] centerX, double[] centerY, double[] facingX, double[] facingY,
+                               double[] radiusSq, int[] out) {
+        long start = System.nanoTime();
+        for (int c = 0; c < calls; c++) {
+            // Move the player a little so the calls cannot be folded together
+            checksum += kernel.filter(300 + (c & 15), 300, centerX, centerY, facingX, facingY, radiusSq, count, out);
+        }
+        return (double) (System.nanoTime() - start) / calls / count;
+    }
+}
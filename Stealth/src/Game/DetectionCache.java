@@ -0,0 +1,102 @@
+package Game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Remembers each guard's last detection verdict and only re-runs the check when
+// something it depends on changes: player or guard tile, the guard's facing
+// bucket or the player's hidden state. Bomb and level changes go through
+// invalidate() because they affect every guard at once.
+public class DetectionCache {
+    private static final long NO_KEY = -1;
+
+    private final DetectionPrefilter prefilter = new DetectionPrefilter();
+    private final List<GuardVariant> stale = new ArrayList<>();
+
+    private long[] keys = new long[0];
+    private boolean[] verdicts = new boolean[0];
+    private int[] staleIndex = new int[0];
+    private boolean[] staleVerdicts = new boolean[0];
+
+    private long evaluations = 0;
+    private long skipped = 0;
+
+    public boolean anyCanSee(Player player, List<GuardVariant> guards, EntityStore entities,
+                             CherryBombLayer cherryBombs) {
+        if (player == null) return false;
+
+        int count = guards.size();
+        ensureCapacity(count);
+
+        int playerTileX = (int) (player.getX() / LevelGenerator.TILE_SIZE);
+        int playerTileY = (int) (player.getY() / LevelGenerator.TILE_SIZE);
+        boolean hidden = player.isHidden();
+
+        boolean seen = false;
+        stale.clear();
+
+        for (int i = 0; i < count; i++) {
+            long key = keyFor(entities, entities.rowOf(guards.get(i).getEntity()), playerTileX, playerTileY, hidden);
+            if (keys[i] == key) {
+                skipped++;
+                seen |= verdicts[i];
+            } else {
+                keys[i] = key;
+                staleIndex[stale.size()] = i;
+                stale.add(guards.get(i));
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            evaluations += stale.size();
+            prefilter.evaluate(player, stale, entities, cherryBombs, staleVerdicts);
+            for (int i = 0; i < stale.size(); i++) {
+                verdicts[staleIndex[i]] = staleVerdicts[i];
+                seen |= staleVerdicts[i];
+            }
+        }
+
+        return seen;
+    }
+
+    private long keyFor(EntityStore entities, int row, int playerTileX, int playerTileY, boolean hidden) {
+        int guardTileX = (int) ((entities.x[row] + entities.width[row] / 2) / LevelGenerator.TILE_SIZE);
+        int guardTileY = (int) ((entities.y[row] + entities.height[row] / 2) / LevelGenerator.TILE_SIZE);
+
+        // Facing snapped to a 9x9 grid of components, avoiding atan2 for the bucket
+        int facingBucket = (int) Math.round(entities.facingX[row] * 4) + 4
+                         + ((int) Math.round(entities.facingY[row] * 4) + 4) * 9;
+
+        return (playerTileX & 0xFFL)
+             | (playerTileY & 0xFFL) << 8
+             | (guardTileX & 0xFFL) << 16
+             | (guardTileY & 0xFFL) << 24
+             | (long) facingBucket << 32
+             | (hidden ? 1L : 0L) << 40;
+    }
+
+    public void invalidate() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = NO_KEY;
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (keys.length >= count) return;
+
+        int capacity = Math.max(count, keys.length * 2);
+        keys = new long[capacity];
+        verdicts = new boolean[capacity];
+        staleIndex = new int[capacity];
+        staleVerdicts = new boolean[capacity];
+        invalidate();
+    }
+
+    public long getEvaluations() { return evaluations; }
+    public long getSkipped() { return skipped; }
+
+    public void resetCounters() {
+        evaluations = 0;
+        skipped = 0;
+    }
+}
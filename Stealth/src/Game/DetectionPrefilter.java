@@ -0,0 +1,169 @@
+package Game;
+
+import java.util.List;
+
+// First detection pass over every guard before the per-guard line-of-sight walk.
+// Guard state is copied into flat arrays and a Kernel runs the radius and cone
+// checks over them; only survivors reach GuardVariant.canSee.
+//
+// The scalar kernel writes survivors out as it goes, which the JIT cannot turn
+// into SIMD. When the JVM was started with --add-modules jdk.incubator.vector,
+// guard lists of VECTOR_MIN_GUARDS or more go to VectorDetectionKernel, which
+// tests a whole vector of guards per comparison (DetectionBenchmark measures
+// the crossover). Both kernels do the same double arithmetic in the same order,
+// so they pass exactly the same guards.
+public class DetectionPrefilter {
+    static final double COS_HALF_FOV_SQ = GuardVariant.COS_HALF_FOV * GuardVariant.COS_HALF_FOV;
+    static final int VECTOR_MIN_GUARDS = 8;
+
+    // Radius and cone pass: writes the indices of guards that pass into
+    // candidates, in order, and returns how many there are
+    interface Kernel {
+        int filter(double playerX, double playerY, double[] centerX, double[] centerY,
+                   double[] facingX, double[] facingY, double[] radiusSq, int count, int[] candidates);
+    }
+
+    static final Kernel SCALAR = (playerX, playerY, centerX, centerY, facingX, facingY, radiusSq, count, candidates) ->
+        filterRange(playerX, playerY, centerX, centerY, facingX, facingY, radiusSq, candidates, 0, count, 0);
+    // Null unless the incubating Vector API module is in the boot layer
+    static final Kernel VECTOR = loadVectorKernel();
+
+    private double[] centerX = new double[0];
+    private double[] centerY = new double[0];
+    private double[] facingX = new double[0];
+    private double[] facingY = new double[0];
+    private double[] radiusSq = new double[0];
+    private int[] candidates = new int[0];
+
+    private int lastCandidateCount = 0;
+
+    public boolean anyCanSee(Player player, List<GuardVariant> guards, EntityStore entities,
+                             CherryBombLayer cherryBombs) {
+        if (player == null || player.isHidden()) return false;
+
+        int count = load(player, guards, entities, cherryBombs);
+        int survivors = filter(player.getX(), player.getY(), count);
+        lastCandidateCount = survivors;
+
+        for (int i = 0; i < survivors; i++) {
+            if (guards.get(candidates[i]).canSee(player, cherryBombs)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Fills visible[i] for every guard instead of stopping at the first one,
+    // for callers that keep per-guard verdicts
+    public int evaluate(Player player, List<GuardVariant> guards, EntityStore entities,
+                        CherryBombLayer cherryBombs, boolean[] visible) {
+        int count = guards.size();
+        for (int i = 0; i < count; i++) {
+            visible[i] = false;
+        }
+        if (player == null || player.isHidden()) return 0;
+
+        load(player, guards, entities, cherryBombs);
+        int survivors = filter(player.getX(), player.getY(), count);
+        lastCandidateCount = survivors;
+
+        int seen = 0;
+        for (int i = 0; i < survivors; i++) {
+            int index = candidates[i];
+            if (guards.get(index).canSee(player, cherryBombs)) {
+                visible[index] = true;
+                seen++;
+            }
+        }
+        return seen;
+    }
+
+    // Positions, facings and vision radii come straight from the guards' rows
+    private int load(Player player, List<GuardVariant> guards, EntityStore entities,
+                     CherryBombLayer cherryBombs) {
+        int count = guards.size();
+        ensureCapacity(count);
+
+        double gearFactor = player.getStats().getDetectionRadiusMultiplier();
+        double bombFactor = Math.min(0.5, gearFactor);
+
+        for (int i = 0; i < count; i++) {
+            GuardVariant guard = guards.get(i);
+            int row = entities.rowOf(guard.getEntity());
+            centerX[i] = entities.x[row] + entities.width[row] / 2;
+            centerY[i] = entities.y[row] + entities.height[row] / 2;
+
+            facingX[i] = entities.facingX[row];
+            facingY[i] = entities.facingY[row];
+
+            double radius = entities.visionRadius[row];
+            boolean inBomb = !cherryBombs.isEmpty() && cherryBombs.covers(entities.x[row], entities.y[row]);
+
+            if (inBomb && guard.getType() == GuardVariant.GuardType.STANDING) {
+                // Standing guards are fully blinded by a cherry bomb
+                radiusSq[i] = -1;
+            } else {
+                // Moving guards inside a bomb see half as far; canSee applies both
+                // limits, so the tighter of the two is the one that counts
+                radius *= inBomb ? bombFactor : gearFactor;
+                radiusSq[i] = radius * radius;
+            }
+        }
+        return count;
+    }
+
+    private int filter(double playerX, double playerY, int count) {
+        Kernel kernel = VECTOR != null && count >= VECTOR_MIN_GUARDS ? VECTOR : SCALAR;
+        return kernel.filter(playerX, playerY, centerX, centerY, facingX, facingY, radiusSq, count, candidates);
+    }
+
+    // Scalar test of guards from..to-1, appending survivors after the first
+    // `survivors` entries of candidates; also finishes the vector kernel's tail
+    static int filterRange(double playerX, double playerY, double[] centerX, double[] centerY,
+                           double[] facingX, double[] facingY, double[] radiusSq, int[] candidates,
+                           int from, int to, int survivors) {
+        for (int i = from; i < to; i++) {
+            double dx = playerX - centerX[i];
+            double dy = playerY - centerY[i];
+            double distanceSq = dx * dx + dy * dy;
+            double dot = dx * facingX[i] + dy * facingY[i];
+
+            // Inside the radius and within FIELD_OF_VIEW/2 of the facing direction,
+            // compared as dot^2 >= cos^2 * |d|^2 so no square root is needed
+            boolean inRange = distanceSq <= radiusSq[i];
+            boolean inCone = dot >= 0 && dot * dot >= COS_HALF_FOV_SQ * distanceSq;
+
+            candidates[survivors] = i;
+            survivors += (inRange && inCone) ? 1 : 0;
+        }
+        return survivors;
+    }
+
+    // Loaded by name so this class never links against the incubator module
+    // when it is absent
+    private static Kernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            return (Kernel) Class.forName("Game.VectorDetectionKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("Vector detection kernel unavailable, using scalar: " + e);
+            return null;
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (centerX.length >= count) return;
+
+        int capacity = Math.max(count, centerX.length * 2);
+        centerX = new double[capacity];
+        centerY = new double[capacity];
+        facingX = new double[capacity];
+        facingY = new double[capacity];
+        radiusSq = new double[capacity];
+        candidates = new int[capacity];
+    }
+
+    public int getLastCandidateCount() {
+        return lastCandidateCount;
+    }
+}
@@ -0,0 +1,142 @@
+package Game;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Rates generated levels by letting BotPlayer play each one many times headless.
+// Every level is a World seed; each run of it uses a different bot seed, so the
+// runs differ only in how the bot plays, and the share of runs that get spotted
+// estimates how hard the level is. Levels are spread over a fixed pool with one
+// thread per core; each World stays on the thread that runs it.
+//
+// Usage: DifficultyEvaluator [levels] [runs per level] [class] [first seed] [min rate] [max rate]
+// Levels whose detection rate lies in [min rate, max rate] are listed at the end.
+public class DifficultyEvaluator {
+    static final int MAX_TICKS = 90 * GameClock.TICKS_PER_SECOND;
+
+    public static final int ESCAPED = 0;
+    public static final int SPOTTED = 1;
+    public static final int TIMED_OUT = 2;
+
+    public static class LevelRating {
+        final long seed;
+        int escaped, spotted, timedOut;
+        long escapeTicks;
+
+        LevelRating(long seed) {
+            this.seed = seed;
+        }
+
+        public double getDetectionRate() {
+            return (double) spotted / (escaped + spotted + timedOut);
+        }
+
+        // Mean seconds to the exit over the runs that escaped, NaN if none did
+        public double getMeanEscapeSeconds() {
+            return escaped == 0 ? Double.NaN : (double) escapeTicks / escaped / GameClock.TICKS_PER_SECOND;
+        }
+
+        public long getSeed() { return seed; }
+        public int getRuns() { return escaped + spotted + timedOut; }
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int levels = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        String classType = args.length > 2 ? args[2] : "Sneaky";
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        double minRate = args.length > 4 ? Double.parseDouble(args[4]) : 0.0;
+        double maxRate = args.length > 5 ? Double.parseDouble(args[5]) : 1.0;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        List<LevelRating> ratings = evaluate(firstSeed, levels, runs, classType, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        ratings.sort(Comparator.comparingDouble(LevelRating::getDetectionRate));
+        System.out.println("      seed  runs  escaped  spotted  timeout  detection  escape(s)");
+        for (LevelRating rating : ratings) {
+            System.out.printf("%10d  %4d  %7d  %7d  %7d  %8.0f%%  %9.1f%n",
+                              rating.seed, rating.getRuns(), rating.escaped, rating.spotted, rating.timedOut,
+                              100 * rating.getDetectionRate(), rating.getMeanEscapeSeconds());
+        }
+
+        long total = (long) levels * runs;
+        System.out.printf("%d runs of %d levels in %.1f s on %d threads (%.0f runs/min)%n",
+                          total, levels, seconds, threads, total / seconds * 60);
+
+        StringBuilder selected = new StringBuilder();
+        for (LevelRating rating : ratings) {
+            double rate = rating.getDetectionRate();
+            if (rate >= minRate && rate <= maxRate) selected.append(' ').append(rating.seed);
+        }
+        System.out.printf("levels with detection rate in [%.2f, %.2f]:%s%n", minRate, maxRate, selected);
+    }
+
+    public static List<LevelRating> evaluate(long firstSeed, int levels, int runs, String classType,
+                                             int threads) throws InterruptedException, ExecutionException {
+        // Content is loaded once up front rather than by whichever worker gets there first
+        GameContent.get();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<LevelRating>> results = new ArrayList<>(levels);
+            for (int i = 0; i < levels; i++) {
+                long seed = firstSeed + i;
+                results.add(pool.submit(() -> rate(seed, runs, classType)));
+            }
+
+            List<LevelRating> ratings = new ArrayList<>(levels);
+            for (Future<LevelRating> result : results) {
+                ratings.add(result.get());
+            }
+            return ratings;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static LevelRating rate(long seed, int runs, String classType) {
+        LevelRating rating = new LevelRating(seed);
+        long[] ticks = new long[1];
+        for (int run = 0; run < runs; run++) {
+            switch (play(seed, run, classType, ticks)) {
+                case ESCAPED:
+                    rating.escaped++;
+                    rating.escapeTicks += ticks[0];
+                    break;
+                case SPOTTED:
+                    rating.spotted++;
+                    break;
+                default:
+                    rating.timedOut++;
+                    break;
+            }
+        }
+        return rating;
+    }
+
+    // One attempt at the first level of the seed; ticksOut[0] receives the
+    // ticks it took. Returns ESCAPED, SPOTTED or TIMED_OUT.
+    public static int play(long seed, long botSeed, String classType, long[] ticksOut) {
+        World world = new World(classType, GameEvents.NONE, GameClock.simulated(), seed);
+        return play(world, new BotPlayer(botSeed), ticksOut);
+    }
+
+    // Plays an already set up World; with no bot the player stands still
+    static int play(World world, BotPlayer bot, long[] ticksOut) {
+        for (int tick = 1; tick <= MAX_TICKS; tick++) {
+            world.setInput(bot != null ? bot.decide(world) : InputSnapshot.NONE);
+            world.tick();
+            ticksOut[0] = tick;
+            if (world.isSpotted()) return SPOTTED;
+            if (world.isLevelComplete()) return ESCAPED;
+        }
+        return TIMED_OUT;
+    }
+}
@@ -0,0 +1,167 @@
+package Game;
+
+import java.util.Arrays;
+
+// Every entity in the world (player, guards, cherry bombs) as a row in dense
+// component arrays. Systems walk rows 0..count-1 and test the component mask, so
+// iteration is linear over primitive arrays however many entities there are.
+// Entities are referred to by a stable id; removal swaps the last row into the
+// hole and updates the id -> row table, so rows stay packed.
+public class EntityStore {
+    public static final int POSITION = 1;
+    public static final int VELOCITY = 1 << 1;
+    public static final int VISION = 1 << 2;
+    public static final int SPRITE = 1 << 3;
+    public static final int LIFETIME = 1 << 4;
+    public static final int AREA = 1 << 5;
+
+    public static final byte SPRITE_NONE = 0;
+    public static final byte SPRITE_PLAYER = 1;
+    public static final byte SPRITE_GUARD_STANDING = 2;
+    public static final byte SPRITE_GUARD_MOVING = 3;
+
+    private static final int NO_ROW = -1;
+
+    private int count = 0;
+    private int[] mask = new int[0];
+    private int[] idOfRow = new int[0];
+    private int[] rowOfId = new int[0];
+    private int[] freeIds = new int[0];
+    private int freeCount = 0;
+    private int nextId = 0;
+
+    // POSITION: top-left corner this tick and last tick, and the box size
+    double[] x = new double[0];
+    double[] y = new double[0];
+    double[] prevX = new double[0];
+    double[] prevY = new double[0];
+    double[] width = new double[0];
+    double[] height = new double[0];
+    // VELOCITY: movement over the last tick
+    double[] velX = new double[0];
+    double[] velY = new double[0];
+    // VISION: radius and unit facing
+    double[] visionRadius = new double[0];
+    double[] facingX = new double[0];
+    double[] facingY = new double[0];
+    // SPRITE: what to draw, SPRITE_NONE while invisible
+    byte[] sprite = new byte[0];
+    // LIFETIME: clock time the entity started and the time it expires
+    long[] startTime = new long[0];
+    long[] expiresAt = new long[0];
+    // AREA: radius of an effect centred on the position
+    double[] areaRadius = new double[0];
+
+    public int create(int components) {
+        ensureCapacity(count + 1);
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        if (id >= rowOfId.length) {
+            rowOfId = Arrays.copyOf(rowOfId, Math.max(id + 1, rowOfId.length * 2));
+        }
+
+        int row = count++;
+        rowOfId[id] = row;
+        idOfRow[row] = id;
+        mask[row] = components;
+
+        x[row] = y[row] = prevX[row] = prevY[row] = 0;
+        width[row] = height[row] = 0;
+        velX[row] = velY[row] = 0;
+        visionRadius[row] = 0;
+        facingX[row] = 1;
+        facingY[row] = 0;
+        sprite[row] = SPRITE_NONE;
+        startTime[row] = expiresAt[row] = 0;
+        areaRadius[row] = 0;
+        return id;
+    }
+
+    public void destroy(int id) {
+        int row = rowOf(id);
+        int last = --count;
+        if (row != last) {
+            copyRow(last, row);
+            rowOfId[idOfRow[row]] = row;
+        }
+        rowOfId[id] = NO_ROW;
+
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(8, freeIds.length * 2));
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    public void clear() {
+        count = 0;
+        freeCount = 0;
+        nextId = 0;
+    }
+
+    public int rowOf(int id) {
+        return rowOfId[id];
+    }
+
+    public int idAt(int row) {
+        return idOfRow[row];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean has(int row, int components) {
+        return (mask[row] & components) == components;
+    }
+
+    public void setPosition(int id, double px, double py, double w, double h) {
+        int row = rowOf(id);
+        x[row] = prevX[row] = px;
+        y[row] = prevY[row] = py;
+        width[row] = w;
+        height[row] = h;
+        velX[row] = velY[row] = 0;
+    }
+
+    private void copyRow(int from, int to) {
+        idOfRow[to] = idOfRow[from];
+        mask[to] = mask[from];
+        x[to] = x[from];
+        y[to] = y[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        width[to] = width[from];
+        height[to] = height[from];
+        velX[to] = velX[from];
+        velY[to] = velY[from];
+        visionRadius[to] = visionRadius[from];
+        facingX[to] = facingX[from];
+        facingY[to] = facingY[from];
+        sprite[to] = sprite[from];
+        startTime[to] = startTime[from];
+        expiresAt[to] = expiresAt[from];
+        areaRadius[to] = areaRadius[from];
+    }
+
+    private void ensureCapacity(int needed) {
+        if (mask.length >= needed) return;
+
+        int capacity = Math.max(16, Math.max(needed, mask.length * 2));
+        mask = Arrays.copyOf(mask, capacity);
+        idOfRow = Arrays.copyOf(idOfRow, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        visionRadius = Arrays.copyOf(visionRadius, capacity);
+        facingX = Arrays.copyOf(facingX, capacity);
+        facingY = Arrays.copyOf(facingY, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+        startTime = Arrays.copyOf(startTime, capacity);
+        expiresAt = Arrays.copyOf(expiresAt, capacity);
+        areaRadius = Arrays.copyOf(areaRadius, capacity);
+    }
+}
@@ -13,42 +13,33 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 public class GameApp extends Application {
-    private Player player;
-    private GuardVariant standingGuard;
-    private GuardVariant movingGuard;
-    private LevelGenerator level;
+    private WorldRenderer renderer;
+    private SimulationLoop simulation;
+    // Set instead of simulation when -Dstealth.server names a GameServer
+    private RemoteSession remote;
+    private AnimationTimer gameLoop;
     
-    private boolean levelComplete = false;
-    private boolean spotted = false;
-    private boolean paused = false;
     private boolean initialized = false;
     
-    private final Map<KeyCode, Boolean> keys = new HashMap<>();
+    // The FX thread only sends commands and draws snapshots; all World state
+    // lives on the simulation thread. Both are single-producer/single-consumer,
+    // so every game gets its own pair rather than sharing with a stopping thread.
+    private CommandQueue commands = new CommandQueue(256);
+    private SnapshotBuffer snapshots = new SnapshotBuffer();
     
     private Canvas canvas;
     private GraphicsContext gc;
     private double scaleX = 1.0;
     private double scaleY = 1.0;
     
-    private int[][] initialLevelState;
-    private double initialPlayerX, initialPlayerY;
-    private double initialStandingGuardX, initialStandingGuardY;
-    private double initialMovingGuardX, initialMovingGuardY;
-    
     private static final int BASE_WIDTH = 800;
     private static final int BASE_HEIGHT = 600;
     private static final Font MESSAGE_FONT = new Font("Arial", 24);
     
+    private static final long TICK_NANOS = GameClock.TICK_NANOS;
+    
     private String selectedClass;
-
-    private List<CherryBombEffect> activeCherryBombs= new ArrayList<>();
     
     private Stage primaryStage;
     
@@ -66,61 +57,33 @@ public class GameApp extends Application {
     }
     
     public void showMainMenu() {
+        stopGameLoop();
         new MainMenu(primaryStage, this);
         primaryStage.show();
     }
 
-    private void initializeGame() {
-        level = new LevelGenerator();
-        
-        initialLevelState = new int[LevelGenerator.WIDTH][LevelGenerator.HEIGHT];
-        for (int x = 0; x < LevelGenerator.WIDTH; x++) {
-            for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
-                initialLevelState[x][y] = level.getTile(x, y);
-            }
-        }
-        
-        int[] standingGuardPos = level.getRandomFloorPosition();
-        int[] movingGuardPos = level.getRandomFloorPosition();
-        List<int[]> guardPositions = Arrays.asList(standingGuardPos, movingGuardPos);
-        
-        int[] playerPos = level.getValidPlayerSpawn(guardPositions);
-        
-        player = new Player(level);
-        player.setPosition(playerPos[0] * LevelGenerator.TILE_SIZE, 
-                         playerPos[1] * LevelGenerator.TILE_SIZE);
-        player.setClassType(selectedClass);
-        
-        standingGuard = new GuardVariant(level, GuardVariant.GuardType.STANDING);
-        standingGuard.setPosition(standingGuardPos[0] * LevelGenerator.TILE_SIZE,
-                                standingGuardPos[1] * LevelGenerator.TILE_SIZE);
-        
-        movingGuard = new GuardVariant(level, GuardVariant.GuardType.MOVING);
-        movingGuard.setPosition(movingGuardPos[0] * LevelGenerator.TILE_SIZE,
-                              movingGuardPos[1] * LevelGenerator.TILE_SIZE);
-        
-        initialPlayerX = player.getX();
-        initialPlayerY = player.getY();
-        initialStandingGuardX = standingGuardPos[0] * LevelGenerator.TILE_SIZE;
-        initialStandingGuardY = standingGuardPos[1] * LevelGenerator.TILE_SIZE;
-        initialMovingGuardX = movingGuardPos[0] * LevelGenerator.TILE_SIZE;
-        initialMovingGuardY = movingGuardPos[1] * LevelGenerator.TILE_SIZE;
+    private World initializeGame() {
+        // Ticks are fixed-length, so simulated time keeps pace with the display
+        // while keeping every run reproducible from its recording
+        World newWorld = new World(selectedClass, new SoundEvents(), GameClock.simulated());
         
         SoundManager.initialize();
         SoundManager.playBGM();
         
-        initialized = true;
+        return newWorld;
     }
 
     private void setupEventHandlers(Scene scene) {
         scene.setOnKeyPressed(e -> {
-            keys.put(e.getCode(), true);
+            Action action = actionFor(e.getCode());
+            if (action != null) send(GameCommand.KEY_DOWN.encode(action.ordinal()));
             handleSpecialKeys(e);
         });
         
         scene.setOnKeyReleased(e -> {
-            keys.put(e.getCode(), false);
-            if (e.getCode() == KeyCode.P) paused = !paused;
+            Action action = actionFor(e.getCode());
+            if (action != null) send(GameCommand.KEY_UP.encode(action.ordinal()));
+            if (e.getCode() == KeyCode.P) send(GameCommand.TOGGLE_PAUSE.encode());
         });
         
         canvas.widthProperty().addListener((obs, oldVal, newVal) -> resizeCanvas());
@@ -132,23 +95,31 @@ public class GameApp extends Application {
             case F11:
                 toggleFullscreen();
                 break;
+            case F9:
+                send(GameCommand.SAVE_RECORDING.encode());
+                break;
+            case O:
+                renderer.toggleDangerOverlay();
+                break;
             case R:
-                if (spotted) resetLevel();
+                send(GameCommand.RESTART.encode());
                 break;
             case ENTER:
-                if (levelComplete) {
-                    generateNewLevel();
-                    levelComplete = false;
-                    spotted = false;
-                    SoundManager.playBGM();
-                }
+                send(GameCommand.NEXT_LEVEL.encode());
                 break;
             case ESCAPE:
-                if (!spotted && !levelComplete) pauseGame();
+                WorldSnapshot snapshot = snapshots.latest();
+                if (snapshot != null && !snapshot.isSpotted() && !snapshot.isLevelComplete()) pauseGame();
                 break;
         }
     }
 
+    private void send(long command) {
+        if (!commands.offer(command)) {
+            System.err.println("Command queue full, dropped " + GameCommand.typeOf(command));
+        }
+    }
+    
     private void configureStage(Scene scene) {
         scene.setFill(Color.DARKSLATEGRAY);
         primaryStage.setScene(scene); // Use primaryStage
@@ -158,123 +129,75 @@ public class GameApp extends Application {
     }
     
     private void startGameLoop() {
-        new AnimationTimer() {
+        gameLoop = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (!initialized || paused || gc == null) return;
+                if (!initialized || gc == null) return;
+                
+                WorldSnapshot snapshot = snapshots.latest();
+                if (snapshot == null) return;
                 
                 try {
-                    gc.setFill(Color.DARKSLATEGRAY);
-                    gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
-                    
-                    scaleX = canvas.getWidth() / BASE_WIDTH;
-                    scaleY = canvas.getHeight() / BASE_HEIGHT;
-                    
-                    gc.save();
-                    gc.scale(scaleX, scaleY);
-                    
-                    if (!spotted) {
-                        handleStealthControls();
-                        player.update(level);
-                        movingGuard.update(level);
-                        
-                        if (!player.isHidden()) {
-                            boolean seenByStanding = standingGuard != null && 
-                                                   standingGuard.canSee(player, activeCherryBombs);
-                            boolean seenByMoving = movingGuard != null && 
-                                                 movingGuard.canSee(player, activeCherryBombs);
-                            if (seenByStanding || seenByMoving) {
-                                spotted = true;
-                                SoundManager.playAlert();
-                            }
-                        }
-                    }
-                    
-                    if (level.isAtExit((int)(player.getX() / LevelGenerator.TILE_SIZE), 
-                            (int)(player.getY() / LevelGenerator.TILE_SIZE))) {
-                        if (!levelComplete && keys.getOrDefault(KeyCode.E, false)) {
-                            levelComplete();
-                        }
-                    }
-                    
-                    renderMap();
-                    player.render(gc);
-                    if (standingGuard != null) standingGuard.render(gc);
-                    if (movingGuard != null) movingGuard.render(gc);
-                    
-                    // Update and render cherry bombs
-                    activeCherryBombs.removeIf(effect -> {
-                        effect.update();
-                        return !effect.isActive();
-                    });
-                    
-                    for (CherryBombEffect effect : activeCherryBombs) {
-                        effect.render(gc);
-                    }
-                    
-                    renderUI();
-                    gc.restore();
+                    // Extrapolate from the last published tick by the time since it was
+                    // published, capped at one tick so a stalled simulation holds still
+                    double alpha = snapshot.isPaused() ? 1.0
+                        : Math.min(1.0, (double) (now - snapshot.publishNanos) / TICK_NANOS);
+                    render(snapshot, Math.max(0.0, alpha));
                 } catch (Exception e) {
                     System.err.println("Rendering error: " + e.getMessage());
                     e.printStackTrace();
                 }
             }
-        }.start();
+        };
+        gameLoop.start();
     }
-
-    private void handleStealthControls() {
-        player.handleInput(KeyCode.W, keys.getOrDefault(KeyCode.W, false));
-        player.handleInput(KeyCode.S, keys.getOrDefault(KeyCode.S, false));
-        player.handleInput(KeyCode.A, keys.getOrDefault(KeyCode.A, false));
-        player.handleInput(KeyCode.D, keys.getOrDefault(KeyCode.D, false));
-        player.handleInput(KeyCode.H, keys.getOrDefault(KeyCode.H, false));
+    
+    private void stopGameLoop() {
+        if (gameLoop != null) gameLoop.stop();
+        if (simulation != null) simulation.stop();
+        if (remote != null) remote.stop();
+        gameLoop = null;
+        simulation = null;
+        remote = null;
+    }
+    
+    // alpha is how far the frame lies between the previous and the current tick
+    private void render(WorldSnapshot snapshot, double alpha) {
+        gc.setFill(Color.DARKSLATEGRAY);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
         
-        if (keys.getOrDefault(KeyCode.Q, false)) {
-            player.useCherryBomb(activeCherryBombs);
-        }
+        scaleX = canvas.getWidth() / BASE_WIDTH;
+        scaleY = canvas.getHeight() / BASE_HEIGHT;
+        
+        gc.save();
+        gc.scale(scaleX, scaleY);
+        
+        renderer.render(gc, snapshot, alpha);
+        renderUI(snapshot);
+        gc.restore();
     }
 
-    private void renderMap() {
-        for (int x = 0; x < LevelGenerator.WIDTH; x++) {
-            for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
-                int tile = level.getTile(x, y);
-                double px = x * LevelGenerator.TILE_SIZE;
-                double py = y * LevelGenerator.TILE_SIZE;
-                
-                switch (tile) {
-                    case LevelGenerator.WALL:
-                        gc.setFill(Color.DARKGRAY);
-                        gc.fillRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
-                        gc.setStroke(Color.BLACK);
-                        gc.strokeRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
-                        break;
-                    case LevelGenerator.EXIT:
-                        gc.setFill(Color.GREEN);
-                        gc.fillRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
-                        break;
-                    case LevelGenerator.HIDEOBJ:
-                        gc.setFill(Color.SIENNA);
-                        gc.fillRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
-                        gc.setStroke(Color.BROWN);
-                        gc.strokeRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
-                        break;
-                    default:
-                        gc.setFill(Color.LIGHTGRAY);
-                        gc.fillRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
-                }
-            }
+    private static Action actionFor(KeyCode code) {
+        switch (code) {
+            case W: return Action.UP;
+            case S: return Action.DOWN;
+            case A: return Action.LEFT;
+            case D: return Action.RIGHT;
+            case H: return Action.HIDE;
+            case Q: return Action.BOMB;
+            case E: return Action.INTERACT;
+            default: return null;
         }
     }
 
-    private void renderUI() {
-        player.renderHUD(gc, BASE_WIDTH);
+    private void renderUI(WorldSnapshot snapshot) {
+        renderer.renderHUD(gc, snapshot, BASE_WIDTH);
         
-        if (level.isAtExit((int)(player.getX() / LevelGenerator.TILE_SIZE), 
-                (int)(player.getY() / LevelGenerator.TILE_SIZE)) && !levelComplete) {
+        if (snapshot.isAtExit() && !snapshot.isLevelComplete()) {
             renderCenteredText(gc, "PRESS [E] TO ESCAPE", Color.GREEN, BASE_WIDTH, 50);
         }
         
-        if (levelComplete) {
+        if (snapshot.isLevelComplete()) {
             gc.setFont(MESSAGE_FONT);
             gc.setFill(Color.GREEN);
             String message = "ESCAPED! PRESS [ENTER] FOR NEXT LEVEL";
@@ -285,7 +208,7 @@ public class GameApp extends Application {
             gc.strokeText(message, (BASE_WIDTH - textWidth) / 2, BASE_HEIGHT / 2);
         }
         
-        if (spotted) {
+        if (snapshot.isSpotted()) {
             gc.setFont(MESSAGE_FONT);
             gc.setFill(Color.RED);
             String message = "CAUGHT! PRESS R TO RESTART";
@@ -296,7 +219,7 @@ public class GameApp extends Application {
             gc.strokeText(message, (BASE_WIDTH - textWidth) / 2, 50);
         }
         
-        if (paused) {
+        if (snapshot.isPaused()) {
             gc.setFont(MESSAGE_FONT);
             gc.setFill(Color.WHITE);
             String message = "PAUSED";
@@ -348,72 +271,14 @@ public class GameApp extends Application {
         }
     }
 
-    private void resetLevel() {
-        spotted = false;
-        
-        for (int x = 0; x < LevelGenerator.WIDTH; x++) {
-            for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
-                level.setTile(x, y, initialLevelState[x][y]);
-            }
-        }
-        
-        player.setPosition(initialPlayerX, initialPlayerY);
-        if (standingGuard != null) {
-            standingGuard.setPosition(initialStandingGuardX, initialStandingGuardY);
-        }
-        if (movingGuard != null) {
-            movingGuard.setPosition(initialMovingGuardX, initialMovingGuardY);
-        }
-    }
-    
-    private void levelComplete() {
-        levelComplete = true;
-        SoundManager.stopBGM();
-        SoundManager.playAlert();
-    }
-    
-    private void generateNewLevel() {
-        level = new LevelGenerator();
-        
-        initialLevelState = new int[LevelGenerator.WIDTH][LevelGenerator.HEIGHT];
-        for (int x = 0; x < LevelGenerator.WIDTH; x++) {
-            for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
-                initialLevelState[x][y] = level.getTile(x, y);
-            }
-        }
-        
-        int[] standingGuardPos = level.getRandomFloorPosition();
-        int[] movingGuardPos = level.getRandomFloorPosition();
-        List<int[]> guardPositions = Arrays.asList(standingGuardPos, movingGuardPos);
-        
-        int[] playerPos = level.getValidPlayerSpawn(guardPositions);
-        player.setPosition(playerPos[0] * LevelGenerator.TILE_SIZE, 
-                         playerPos[1] * LevelGenerator.TILE_SIZE);
-        
-        standingGuard = new GuardVariant(level, GuardVariant.GuardType.STANDING);
-        standingGuard.setPosition(standingGuardPos[0] * LevelGenerator.TILE_SIZE,
-                                standingGuardPos[1] * LevelGenerator.TILE_SIZE);
-        
-        movingGuard = new GuardVariant(level, GuardVariant.GuardType.MOVING);
-        movingGuard.setPosition(movingGuardPos[0] * LevelGenerator.TILE_SIZE,
-                              movingGuardPos[1] * LevelGenerator.TILE_SIZE);
-        
-        initialPlayerX = player.getX();
-        initialPlayerY = player.getY();
-        initialStandingGuardX = standingGuardPos[0] * LevelGenerator.TILE_SIZE;
-        initialStandingGuardY = standingGuardPos[1] * LevelGenerator.TILE_SIZE;
-        initialMovingGuardX = movingGuardPos[0] * LevelGenerator.TILE_SIZE;
-        initialMovingGuardY = movingGuardPos[1] * LevelGenerator.TILE_SIZE;
-    }
-    
     public void pauseGame() {
-        paused = true;
+        send(GameCommand.PAUSE.encode());
         SoundManager.stopBGM();
         new PauseMenu((Stage)canvas.getScene().getWindow(), this).show();
     }
     
     public void resumeGame() {
-        paused = false;
+        send(GameCommand.RESUME.encode());
         SoundManager.playBGM();
     }
     
@@ -429,11 +294,29 @@ public class GameApp extends Application {
 
         new Thread(() -> {
             // Background work
-            initializeGame();
+            CommandQueue newCommands = new CommandQueue(256);
+            SnapshotBuffer newSnapshots = new SnapshotBuffer();
+            RemoteSession newRemote = connectRemote(classType, newCommands, newSnapshots);
+            World newWorld = newRemote == null ? initializeGame() : null;
+            if (newRemote != null) {
+                SoundManager.initialize();
+                SoundManager.playBGM();
+            }
             
-            // Switch to FX thread for UI operations
+            // From here on the world belongs to the simulation thread (or the
+            // server); the FX thread only ever sees it through published snapshots
             javafx.application.Platform.runLater(() -> {
                 try {
+                    stopGameLoop();
+                    commands = newCommands;
+                    snapshots = newSnapshots;
+                    if (newRemote != null) {
+                        remote = newRemote;
+                    } else {
+                        simulation = new SimulationLoop(newWorld, commands, snapshots);
+                        simulation.start();
+                    }
+                    initialized = true;
                     setupCanvas();
                     startGameLoop();
                     primaryStage.show();
@@ -444,9 +327,24 @@ public class GameApp extends Application {
         }).start();
     }
     
+    // Null when playing locally, or when the server cannot be reached and the
+    // game falls back to running here
+    private static RemoteSession connectRemote(String classType, CommandQueue commands, SnapshotBuffer snapshots) {
+        RemoteSession session = RemoteSession.fromProperty(classType, commands, snapshots);
+        if (session == null) return null;
+        try {
+            session.start();
+            return session;
+        } catch (java.io.IOException e) {
+            System.err.println("Could not join game server, playing locally: " + e.getMessage());
+            return null;
+        }
+    }
+    
     private void setupCanvas() {
         canvas = new Canvas(BASE_WIDTH, BASE_HEIGHT);
         gc = canvas.getGraphicsContext2D();
+        renderer = new WorldRenderer();
         StackPane root = new StackPane(canvas);
         Scene scene = new Scene(root);
         
@@ -0,0 +1,46 @@
+package Game;
+
+// The simulation's only time source. advance() is called once at the start of
+// every tick and now() returns that sample for the rest of the tick. In real
+// mode the sample is wall-clock time; in simulated mode every tick is exactly
+// TICK_NANOS long, so headless runs are deterministic and can go as fast as the
+// CPU allows.
+public class GameClock {
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+
+    private final boolean simulated;
+    private long simulatedNanos = 0;
+    private long now;
+
+    private GameClock(boolean simulated) {
+        this.simulated = simulated;
+        this.now = simulated ? 0 : System.currentTimeMillis();
+    }
+
+    public static GameClock realTime() {
+        return new GameClock(false);
+    }
+
+    public static GameClock simulated() {
+        return new GameClock(true);
+    }
+
+    public void advance() {
+        if (simulated) {
+            simulatedNanos += TICK_NANOS;
+            now = simulatedNanos / 1_000_000;
+        } else {
+            now = System.currentTimeMillis();
+        }
+    }
+
+    // Milliseconds, sampled at the start of the current tick
+    public long now() {
+        return now;
+    }
+
+    public boolean isSimulated() {
+        return simulated;
+    }
+}
@@ -0,0 +1,27 @@
+package Game;
+
+// Requests from the UI to the simulation. Encoded into a long (type in the high
+// word, argument in the low word) so they travel through CommandQueue without
+// allocating. SYNC only comes from network clients: once it is applied, its
+// argument is echoed back so the client knows everything before it has landed.
+public enum GameCommand {
+    KEY_DOWN, KEY_UP, TOGGLE_PAUSE, PAUSE, RESUME, RESTART, NEXT_LEVEL, SAVE_RECORDING, SYNC;
+
+    private static final GameCommand[] VALUES = values();
+
+    public long encode() {
+        return encode(0);
+    }
+
+    public long encode(int argument) {
+        return (long) ordinal() << 32 | (argument & 0xFFFFFFFFL);
+    }
+
+    public static GameCommand typeOf(long command) {
+        return VALUES[(int) (command >>> 32)];
+    }
+
+    public static int argumentOf(long command) {
+        return (int) command;
+    }
+}
@@ -0,0 +1,48 @@
+package Game;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Gear, class and guard definitions, loaded once per process by ContentLoader
+// from content/definitions.txt (or the file named by -Dstealth.content).
+public final class GameContent {
+    private final Map<String, GearDefinition> gear;
+    private final Map<String, ClassDefinition> classes;
+    private final GuardDefinition guard;
+
+    public GameContent(Map<String, GearDefinition> gear, Map<String, ClassDefinition> classes,
+                       GuardDefinition guard) {
+        this.gear = Collections.unmodifiableMap(new LinkedHashMap<>(gear));
+        this.classes = Collections.unmodifiableMap(new LinkedHashMap<>(classes));
+        this.guard = guard;
+    }
+
+    private static class Holder {
+        static final GameContent INSTANCE = ContentLoader.load();
+    }
+
+    public static GameContent get() {
+        return Holder.INSTANCE;
+    }
+
+    public GearDefinition gear(String id) {
+        GearDefinition definition = gear.get(id);
+        if (definition == null) {
+            throw new IllegalArgumentException("Unknown gear: " + id);
+        }
+        return definition;
+    }
+
+    // Null for a class with no definition, which plays with base stats and no gear
+    public ClassDefinition playerClass(String name) {
+        return classes.get(name);
+    }
+
+    public GuardDefinition guard() {
+        return guard;
+    }
+
+    public Map<String, GearDefinition> getGear() { return gear; }
+    public Map<String, ClassDefinition> getClasses() { return classes; }
+}
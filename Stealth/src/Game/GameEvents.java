@@ -0,0 +1,12 @@
+package Game;
+
+// Notifications the simulation raises for the presentation layer (sound, UI)
+public interface GameEvents {
+    GameEvents NONE = new GameEvents() {};
+
+    default void onHide() {}
+    default void onUnhide() {}
+    default void onSpotted() {}
+    default void onLevelComplete() {}
+    default void onLevelStart() {}
+}
@@ -0,0 +1,199 @@
+package Game;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hosts many independent games in one JVM for clients on this machine. One
+// thread does all socket reading through a Selector: it accepts connections,
+// turns a HELLO into a GameSession with its own World, and feeds INPUT frames
+// into that session's command queue. The SessionScheduler's workers tick the
+// sessions and write each one's STATE frames. Only the loopback interface is
+// bound, so nothing here is reachable from another machine.
+//
+// Usage: GameServer [port] [worker threads]
+public class GameServer {
+    private static final long STATS_INTERVAL_NANOS = 5_000_000_000L;
+    private static final GameCommand[] COMMANDS = GameCommand.values();
+
+    private final int port;
+    private final SessionScheduler scheduler;
+    private final AtomicInteger nextSessionId = new AtomicInteger(1);
+    private final Random seeds = new Random();
+    private volatile boolean running = true;
+    private Selector selector;
+
+    // Per connection: the partial frame read so far and, after HELLO, its session
+    private static final class Connection {
+        final ByteBuffer in = ByteBuffer.allocate(1024);
+        GameSession session;
+    }
+
+    public GameServer(int port, int threads) {
+        this.port = port;
+        this.scheduler = new SessionScheduler(threads);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : NetProtocol.DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        new GameServer(port, threads).run();
+    }
+
+    public void run() throws IOException {
+        // Load content before the first HELLO rather than while one waits
+        GameContent.get();
+
+        selector = Selector.open();
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        scheduler.start();
+        System.out.printf("Listening on %s with %d session workers%n",
+                          server.getLocalAddress(), scheduler.getThreadCount());
+
+        long nextStats = System.nanoTime() + STATS_INTERVAL_NANOS;
+        try {
+            while (running) {
+                selector.select(1000);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+
+                    if (key.isAcceptable()) {
+                        accept(server);
+                    } else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+
+                if (System.nanoTime() >= nextStats) {
+                    printStats();
+                    nextStats += STATS_INTERVAL_NANOS;
+                }
+            }
+        } finally {
+            scheduler.stop();
+            server.close();
+            selector.close();
+        }
+    }
+
+    public void stop() {
+        running = false;
+        if (selector != null) selector.wakeup();
+    }
+
+    private void accept(ServerSocketChannel server) throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection());
+        }
+    }
+
+    private void read(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (channel.read(connection.in) < 0) {
+                disconnect(key, connection);
+                return;
+            }
+
+            ByteBuffer in = connection.in;
+            in.flip();
+            while (in.remaining() >= 2) {
+                int length = in.getShort(in.position()) & 0xFFFF;
+                if (length == 0 || length > in.capacity() - 2) {
+                    throw new IOException("Bad frame length " + length);
+                }
+                if (in.remaining() < 2 + length) break;
+
+                in.position(in.position() + 2);
+                int end = in.position() + length;
+                if (!handle(key, connection, in, in.get())) return;
+                in.position(end);
+            }
+            in.compact();
+        } catch (IOException | RuntimeException e) {
+            disconnect(key, connection);
+        }
+    }
+
+    // False once the connection has been closed
+    private boolean handle(SelectionKey key, Connection connection, ByteBuffer in, byte type) throws IOException {
+        switch (type) {
+            case NetProtocol.HELLO:
+                if (connection.session != null) throw new IOException("Second HELLO");
+                if ((in.get() & 0xFF) != NetProtocol.VERSION) throw new IOException("Protocol version mismatch");
+                long seed = in.getLong();
+                String classType = NetProtocol.getString(in);
+                connection.session = open((SocketChannel) key.channel(), seed != 0 ? seed : seeds.nextLong(), classType);
+                return true;
+            case NetProtocol.INPUT:
+                if (connection.session == null) throw new IOException("INPUT before HELLO");
+                int ordinal = in.get() & 0xFF;
+                int argument = in.getInt();
+                if (ordinal >= COMMANDS.length) throw new IOException("Unknown command " + ordinal);
+                // A client flooding faster than 60 Hz loses commands rather than the server's memory
+                connection.session.offer(COMMANDS[ordinal].encode(argument));
+                return true;
+            case NetProtocol.BYE:
+                disconnect(key, connection);
+                return false;
+            default:
+                throw new IOException("Unknown frame type " + type);
+        }
+    }
+
+    private GameSession open(SocketChannel channel, long seed, String classType) throws IOException {
+        int id = nextSessionId.getAndIncrement();
+        World world = new World(classType, GameEvents.NONE, GameClock.simulated(), seed);
+        GameSession session = new GameSession(id, world, channel);
+
+        // Written before the scheduler has the session, so it cannot race a STATE frame
+        ByteBuffer welcome = ByteBuffer.allocate(2 + 1 + 4 + 8);
+        NetProtocol.putWelcome(welcome, id, seed);
+        welcome.flip();
+        channel.write(welcome);
+        if (welcome.hasRemaining()) throw new IOException("Could not send WELCOME");
+
+        scheduler.add(session);
+        return session;
+    }
+
+    private void disconnect(SelectionKey key, Connection connection) {
+        key.cancel();
+        if (connection.session != null) {
+            connection.session.close();
+        } else {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // Already gone
+            }
+        }
+    }
+
+    private void printStats() {
+        long[] stats = scheduler.drainStats();
+        double seconds = STATS_INTERVAL_NANOS / 1e9;
+        System.out.printf("%d sessions, %.0f session ticks/s, %.1f us per session tick, longest slot %.2f ms, %d skips%n",
+                          scheduler.getSessionCount(), stats[0] / seconds,
+                          stats[0] == 0 ? 0.0 : stats[1] / 1e3 / stats[0], stats[2] / 1e6, stats[3]);
+    }
+}
@@ -0,0 +1,125 @@
+package Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+// One client's game on the GameServer: its own World (level, player, guards),
+// the commands its connection has delivered, and the encoder that turns each
+// tick into a STATE frame. The server's I/O thread is the only producer of
+// commands and the session's scheduler worker the only consumer, the same
+// single-producer/single-consumer split as the FX thread and SimulationLoop.
+public class GameSession {
+    private static final Action[] ACTIONS = Action.values();
+
+    private final int id;
+    private final World world;
+    private final SocketChannel channel;
+    private final CommandQueue commands = new CommandQueue(256);
+    private final InputState input = new InputState();
+    private final WorldSnapshot snapshot = new WorldSnapshot();
+    private final SnapshotCodec codec = new SnapshotCodec();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(3 + SnapshotCodec.maxEncodedSize());
+
+    private boolean paused = false;
+    private int ack = 0;
+    private long framesSkipped = 0;
+    private volatile boolean closed = false;
+
+    public GameSession(int id, World world, SocketChannel channel) {
+        this.id = id;
+        this.world = world;
+        this.channel = channel;
+        out.limit(0);
+    }
+
+    // I/O thread: false when the queue is full and the command was dropped
+    boolean offer(long command) {
+        return commands.offer(command);
+    }
+
+    // Worker thread: one fixed-length step of the game, then its delta
+    void tick() {
+        drainCommands();
+        if (!paused) {
+            world.setInput(input.snapshot());
+            world.tick();
+        }
+        send();
+    }
+
+    // A client that has not taken the previous frame yet gets no new one; the
+    // next frame it does get is the delta from the last one it received
+    private void send() {
+        try {
+            if (out.hasRemaining()) {
+                channel.write(out);
+                if (out.hasRemaining()) {
+                    framesSkipped++;
+                    return;
+                }
+            }
+
+            out.clear();
+            out.putShort((short) 0);
+            out.put(NetProtocol.STATE);
+            snapshot.copyFrom(world, paused);
+            codec.encode(snapshot, ack, out);
+            out.putShort(0, (short) (out.position() - 2));
+            out.flip();
+            channel.write(out);
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private void drainCommands() {
+        long command;
+        while ((command = commands.poll()) != CommandQueue.EMPTY) {
+            int argument = GameCommand.argumentOf(command);
+            switch (GameCommand.typeOf(command)) {
+                case KEY_DOWN:
+                    if (argument >= 0 && argument < ACTIONS.length) input.press(ACTIONS[argument]);
+                    break;
+                case KEY_UP:
+                    if (argument >= 0 && argument < ACTIONS.length) input.release(ACTIONS[argument]);
+                    break;
+                case TOGGLE_PAUSE:
+                    paused = !paused;
+                    break;
+                case PAUSE:
+                    paused = true;
+                    break;
+                case RESUME:
+                    paused = false;
+                    break;
+                case RESTART:
+                    if (world.isSpotted()) world.resetLevel();
+                    break;
+                case NEXT_LEVEL:
+                    if (world.isLevelComplete()) world.nextLevel();
+                    break;
+                case SYNC:
+                    ack = argument;
+                    break;
+                default:
+                    // Recordings stay on the client's side of the wire
+                    break;
+            }
+        }
+    }
+
+    void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+
+    public boolean isClosed() { return closed; }
+    public int getId() { return id; }
+    public long getFramesSkipped() { return framesSkipped; }
+}
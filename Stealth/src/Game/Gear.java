@@ -2,10 +2,35 @@
 package Game;
 
 public abstract class Gear {
+    protected final GearDefinition definition;
     protected String name;
     protected String description;
     
-    public abstract void applyEffect(Player player);
+    protected Gear(String id) {
+        this.definition = GameContent.get().gear(id);
+        this.name = definition.getName();
+        this.description = definition.getDescription();
+    }
+    
+    // Gear from its content id, "<kind>.<type>"
+    public static Gear fromId(String id) {
+        int dot = id.indexOf('.');
+        String kind = dot < 0 ? id : id.substring(0, dot);
+        String type = id.substring(dot + 1);
+        switch (kind) {
+            case "sneaky": return new SneakyGear(type);
+            case "agile": return new AgileGear(type);
+            default: throw new IllegalArgumentException("Unknown gear kind: " + id);
+        }
+    }
+    
+    // Returns stats with this gear's modifiers applied
+    public PlayerStats applyEffect(PlayerStats stats) {
+        return stats.scaleSpeed(definition.getSpeedMultiplier())
+                    .scaleDetectionRadius(definition.getDetectionRadiusMultiplier())
+                    .scaleHideCooldown(definition.getHideCooldownMultiplier())
+                    .scaleFootsteps(definition.getFootstepMultiplier());
+    }
     
     public String getName() {
         return name;
@@ -14,4 +39,4 @@ public abstract class Gear {
     public String getDescription() {
         return description;
     }
-}
\ No newline at end of file
+}
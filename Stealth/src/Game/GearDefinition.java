@@ -0,0 +1,32 @@
+package Game;
+
+// One [gear ...] entry from the content definitions
+public final class GearDefinition {
+    private final String id;
+    private final String name;
+    private final String description;
+    private final double speedMultiplier;
+    private final double detectionRadiusMultiplier;
+    private final double hideCooldownMultiplier;
+    private final double footstepMultiplier;
+
+    public GearDefinition(String id, String name, String description, double speedMultiplier,
+                          double detectionRadiusMultiplier, double hideCooldownMultiplier,
+                          double footstepMultiplier) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.speedMultiplier = speedMultiplier;
+        this.detectionRadiusMultiplier = detectionRadiusMultiplier;
+        this.hideCooldownMultiplier = hideCooldownMultiplier;
+        this.footstepMultiplier = footstepMultiplier;
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public double getSpeedMultiplier() { return speedMultiplier; }
+    public double getDetectionRadiusMultiplier() { return detectionRadiusMultiplier; }
+    public double getHideCooldownMultiplier() { return hideCooldownMultiplier; }
+    public double getFootstepMultiplier() { return footstepMultiplier; }
+}
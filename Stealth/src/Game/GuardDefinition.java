@@ -0,0 +1,25 @@
+package Game;
+
+// The [guard] entry: size, vision and movement shared by every guard
+public final class GuardDefinition {
+    private final double size;
+    private final double standingRadius;
+    private final double movingRadius;
+    private final double movingSpeed;
+    private final long distractionMs;
+
+    public GuardDefinition(double size, double standingRadius, double movingRadius,
+                           double movingSpeed, long distractionMs) {
+        this.size = size;
+        this.standingRadius = standingRadius;
+        this.movingRadius = movingRadius;
+        this.movingSpeed = movingSpeed;
+        this.distractionMs = distractionMs;
+    }
+
+    public double getSize() { return size; }
+    public double getStandingRadius() { return standingRadius; }
+    public double getMovingRadius() { return movingRadius; }
+    public double getMovingSpeed() { return movingSpeed; }
+    public long getDistractionMs() { return distractionMs; }
+}
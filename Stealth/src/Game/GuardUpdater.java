@@ -0,0 +1,70 @@
+package Game;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Guard update phase of a tick. Each guard reads only the level and the clock
+// and writes only its own fields, so large guard lists are split into batches on
+// a ForkJoinPool. Anything that involves more than one guard (detection, events)
+// runs after this phase, sequentially and in list order, so a parallel tick ends
+// in exactly the same state as a serial one.
+public class GuardUpdater {
+    // Below this many guards the fork/join overhead costs more than it saves
+    static final int PARALLEL_THRESHOLD = 64;
+    private static final int BATCH_SIZE = 16;
+
+    private final ForkJoinPool pool;
+
+    public GuardUpdater() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public GuardUpdater(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void update(List<GuardVariant> guards, LevelGenerator level, GameClock clock) {
+        int count = guards.size();
+        if (count < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+            updateRange(guards, level, clock, 0, count);
+        } else {
+            pool.invoke(new Batch(guards, level, clock, 0, count));
+        }
+    }
+
+    private static void updateRange(List<GuardVariant> guards, LevelGenerator level,
+                                    GameClock clock, int from, int to) {
+        for (int i = from; i < to; i++) {
+            guards.get(i).update(level, clock);
+        }
+    }
+
+    private static class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<GuardVariant> guards;
+        private final LevelGenerator level;
+        private final GameClock clock;
+        private final int from, to;
+
+        Batch(List<GuardVariant> guards, LevelGenerator level, GameClock clock, int from, int to) {
+            this.guards = guards;
+            this.level = level;
+            this.clock = clock;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                updateRange(guards, level, clock, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(guards, level, clock, from, mid),
+                      new Batch(guards, level, clock, mid, to));
+        }
+    }
+}
@@ -1,250 +1,434 @@
 package Game;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.paint.Color;
-import java.util.List;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Random;
 
 public class GuardVariant {
     public enum GuardType { STANDING, MOVING }
 
-    private double x, y;
-    private final double width = 32;
-    private final double height = 32;
-    private final double standingRadius = 100;
-    private final double movingRadius = 60;
-    private final double movingSpeed = 1.5;
+    // Position, facing and vision radius live in this guard's EntityStore row
+    private final EntityStore entities;
+    private final int entity;
+    private final double width;
+    private final double height;
+    private final double standingRadius;
+    private final double movingRadius;
+    private final double movingSpeed;
     
-    private double originalX, originalY;
     private boolean isDistracted = false;
     private long distractionStartTime;
-    private static final long DISTRACTION_DURATION = 3000; // 3 seconds
+    private final long distractionDuration;
     
     
-    private static final double FIELD_OF_VIEW = 90;
-    private static final double DIRECT_VIEW_ANGLE = 30;
+    // Centre of the player plus its four corners
+    private static final int[][] SAMPLE_OFFSETS = {
+        {0, 0}, {-1, -1}, {1, -1}, {-1, 1}, {1, 1}
+    };
+    
+    static final double FIELD_OF_VIEW = 90;
+    static final double DIRECT_VIEW_ANGLE = 30;
+    static final double COS_HALF_FOV = Math.cos(Math.toRadians(FIELD_OF_VIEW / 2));
+    static final double COS_HALF_DIRECT = Math.cos(Math.toRadians(DIRECT_VIEW_ANGLE / 2));
+    
+    // The falloff between the direct view and the cone edge is linear in
+    // degrees. It is sampled here at even steps of cosine, so the cone test
+    // interpolates a table instead of taking an arc cosine; the result stays
+    // within 1e-3 of the degree-based curve (AngleFactorCheck).
+    static final int FALLOFF_STEPS = 64;
+    private static final double FALLOFF_SCALE = FALLOFF_STEPS / (COS_HALF_DIRECT - COS_HALF_FOV);
+    private static final double[] FALLOFF = new double[FALLOFF_STEPS + 1];
+    static {
+        for (int i = 0; i <= FALLOFF_STEPS; i++) {
+            double degrees = Math.toDegrees(Math.acos(COS_HALF_FOV + i / FALLOFF_SCALE));
+            FALLOFF[i] = 1.0 - (degrees - DIRECT_VIEW_ANGLE / 2) / (FIELD_OF_VIEW / 2 - DIRECT_VIEW_ANGLE / 2);
+        }
+    }
+    
+    // Standing guards sweep one degree per millisecond, so the facing only ever
+    // takes whole-degree values and can be looked up instead of recomputed
+    private static final double[] SWEEP_COS = new double[360];
+    private static final double[] SWEEP_SIN = new double[360];
+    static {
+        for (int deg = 0; deg < 360; deg++) {
+            SWEEP_COS[deg] = Math.cos(Math.toRadians(deg));
+            SWEEP_SIN[deg] = Math.sin(Math.toRadians(deg));
+        }
+    }
     
     private GuardType type;
+    private final GuardType initialType;
     private final LevelGenerator level;
     private final Random rand;
     
-    private List<int[]> path = new ArrayList<>();
+    // Refilled in place on every re-plan
+    private final PathBuffer path = new PathBuffer();
     private int currentPathIndex = 0;
     private long idleUntil = 0;
     
-    private final Image idleImage;
-    private final Image runImage;
-    private Image currentImage;
+    private boolean running = false;
+    
+    private static final PhysicsSystem PHYSICS = new TileCollisionSystem();
+    private final PhysicsSystem.Contact contact = new PhysicsSystem.Contact();
+    
+    // Set when the guard needs a new path; the path itself is computed later by
+    // the AIScheduler so re-planning never lands on one tick for every guard
+    private boolean planPending = false;
+    private int distractTileX = -1;
+    private int distractTileY = -1;
+    // Until then the guard is investigating a noise and ignores new ones
+    private long alertUntil = 0;
+    // Heard something and keeps searching the area through the SearchBlackboard
+    // until it has nothing left to claim
+    private boolean investigating = false;
+    private int searchTile = SearchBlackboard.NONE;
+    // Loop of the level's PatrolGraph this guard walks, and the waypoint the
+    // current path ends on, -1 while the path is anything but a patrol leg.
+    // Standing guards get no loop and wander if a distraction sets them moving.
+    private final int patrolLoop;
+    private int patrolWaypoint = -1;
+    private int waypointsReached = 0;
 
-    public GuardVariant(LevelGenerator level, GuardType type) {
+    public GuardVariant(LevelGenerator level, GuardType type, EntityStore entities) {
         this.level = level;
+        this.entities = entities;
         this.type = type;
-        this.rand = new Random();
+        this.initialType = type;
+        this.rand = new Random(level.nextSeed());
+        this.patrolLoop = type == GuardType.MOVING ? level.getPatrolGraph().assignLoop() : -1;
         
-        this.originalX = x;
-        this.originalY = y;
+        GuardDefinition definition = GameContent.get().guard();
+        this.width = definition.getSize();
+        this.height = definition.getSize();
+        this.standingRadius = definition.getStandingRadius();
+        this.movingRadius = definition.getMovingRadius();
+        this.movingSpeed = definition.getMovingSpeed();
+        this.distractionDuration = definition.getDistractionMs();
         
+        this.entity = entities.create(EntityStore.POSITION | EntityStore.VELOCITY
+                                      | EntityStore.VISION | EntityStore.SPRITE);
         int[] pos = level.getRandomFloorPosition();
-        this.x = pos[0] * LevelGenerator.TILE_SIZE;
-        this.y = pos[1] * LevelGenerator.TILE_SIZE;
-        
-        this.idleImage = new Image(getClass().getResourceAsStream("/sprites/enemyidle.gif"));
-        this.runImage = new Image(getClass().getResourceAsStream("/sprites/enemyrun.gif"));
-        this.currentImage = idleImage;
+        entities.setPosition(entity, pos[0] * LevelGenerator.TILE_SIZE, pos[1] * LevelGenerator.TILE_SIZE,
+                             width, height);
+        setType(type);
     }
 
-    public void update(LevelGenerator level) {
-        if (type == GuardType.STANDING) return;
+    public void update(LevelGenerator level, GameClock clock) {
+        int row = entities.rowOf(entity);
+        double x = entities.x[row];
+        double y = entities.y[row];
+        entities.prevX[row] = x;
+        entities.prevY[row] = y;
+        long now = clock.now();
         
-        long now = System.currentTimeMillis();
+        if (type == GuardType.STANDING) {
+            int deg = (int) (now % 360);
+            entities.facingX[row] = SWEEP_COS[deg];
+            entities.facingY[row] = SWEEP_SIN[deg];
+            return;
+        }
         
         if (now < idleUntil) {
-            currentImage = idleImage;
+            running = false;
+            updateFacing();
             return;
         }
 
-        if (path == null || path.isEmpty() || currentPathIndex >= path.size()) {
-            findNewPath(level);
-            idleUntil = now + rand.nextInt(2000) + 1000;
+        if (currentPathIndex >= path.size()) {
+            // Stand still until the scheduler gets round to planning
+            planPending = true;
+            running = false;
+            updateFacing();
             return;
         }
 
-        int[] targetTile = path.get(currentPathIndex);
-        double targetX = targetTile[0] * LevelGenerator.TILE_SIZE;
-        double targetY = targetTile[1] * LevelGenerator.TILE_SIZE;
+        double targetX = path.getX(currentPathIndex) * LevelGenerator.TILE_SIZE;
+        double targetY = path.getY(currentPathIndex) * LevelGenerator.TILE_SIZE;
 
         double dx = targetX - x;
         double dy = targetY - y;
         double dist = Math.sqrt(dx * dx + dy * dy);
 
-        if (dist < 2) {
+        if (dist < 2 || dist <= movingSpeed) {
+            // Land exactly on the waypoint: a guard left a pixel short still
+            // overlaps the previous tile row and jams on the next wall corner
+            entities.x[row] = targetX;
+            entities.y[row] = targetY;
             currentPathIndex++;
+            running = true;
         } else {
             double moveX = movingSpeed * dx / dist;
             double moveY = movingSpeed * dy / dist;
 
-            double newX = x + moveX;
-            double newY = y + moveY;
-
-            if (canMoveTo(newX, y, level)) x = newX;
-            if (canMoveTo(x, newY, level)) y = newY;
+            PHYSICS.move(level, x, y, width, height, moveX, moveY, contact);
+            entities.x[row] = contact.x;
+            entities.y[row] = contact.y;
 
-            currentImage = runImage;
+            running = true;
         }
+        updateFacing();
     }
     
+    private void updateFacing() {
+        int row = entities.rowOf(entity);
+        if (currentPathIndex < path.size()) {
+            double dx = path.getX(currentPathIndex) * LevelGenerator.TILE_SIZE - (entities.x[row] + width/2);
+            double dy = path.getY(currentPathIndex) * LevelGenerator.TILE_SIZE - (entities.y[row] + height/2);
+            double len = Math.sqrt(dx * dx + dy * dy);
+            if (len > 0) {
+                entities.facingX[row] = dx / len;
+                entities.facingY[row] = dy / len;
+                return;
+            }
+        }
+        entities.facingX[row] = 1;
+        entities.facingY[row] = 0;
+    }
     
-    public void distract(double targetX, double targetY) {
+    // Vision radius and sprite follow the type, so a distracted standing guard
+    // sees and draws as a moving one
+    private void setType(GuardType type) {
+        this.type = type;
+        int row = entities.rowOf(entity);
+        entities.visionRadius[row] = type == GuardType.STANDING ? standingRadius : movingRadius;
+        entities.sprite[row] = type == GuardType.STANDING
+            ? EntityStore.SPRITE_GUARD_STANDING : EntityStore.SPRITE_GUARD_MOVING;
+    }
+    
+    
+    public void distract(double targetX, double targetY, GameClock clock) {
         if (type == GuardType.STANDING) {
-            this.type = GuardType.MOVING;
+            setType(GuardType.MOVING);
             this.isDistracted = true;
-            this.distractionStartTime = System.currentTimeMillis();
-            
-            // Find path to target location
-            int startX = (int)(x / LevelGenerator.TILE_SIZE);
-            int startY = (int)(y / LevelGenerator.TILE_SIZE);
-            int targetTileX = (int)(targetX / LevelGenerator.TILE_SIZE);
-            int targetTileY = (int)(targetY / LevelGenerator.TILE_SIZE);
+            this.distractionStartTime = clock.now();
             
-            this.path = Pathfinder.findPath(level, startX, startY, targetTileX, targetTileY);
+            // Path to the target location is planned by the scheduler
+            this.distractTileX = (int)(targetX / LevelGenerator.TILE_SIZE);
+            this.distractTileY = (int)(targetY / LevelGenerator.TILE_SIZE);
+            this.patrolWaypoint = -1;
+            this.path.clear();
             this.currentPathIndex = 0;
+            this.planPending = true;
         }
     }
-
-    private void findNewPath(LevelGenerator level) {
-        int guardTileX = (int) (x / LevelGenerator.TILE_SIZE);
-        int guardTileY = (int) (y / LevelGenerator.TILE_SIZE);
-
-            // Original pathfinding for stealth mode
-            int attempts = 0;
-            List<int[]> newPath = null;
-
-            while (attempts < 50) {
-                int[] newPos = level.getRandomFloorPosition();
-                newPath = Pathfinder.findPath(level, guardTileX, guardTileY, newPos[0], newPos[1]);
-                if (!newPath.isEmpty()) break;
-                attempts++;
-            }
-
-            if (newPath != null && !newPath.isEmpty()) {
-                this.path = newPath;
-                this.currentPathIndex = 0;
-            } else {
-                this.path = new ArrayList<>();
-            }
+    
+    // A noise from the given tile reached this guard. Standing guards are
+    // distracted as by distract(); moving guards drop their patrol and go to
+    // the tile. Returns true if the guard reacted rather than ignoring it.
+    public boolean hear(int tileX, int tileY, GameClock clock) {
+        long now = clock.now();
+        if (now < alertUntil) return false;
+        alertUntil = now + distractionDuration;
+        investigating = true;
         
+        if (type == GuardType.STANDING) {
+            distract((tileX + 0.5) * LevelGenerator.TILE_SIZE, (tileY + 0.5) * LevelGenerator.TILE_SIZE, clock);
+            return true;
+        }
+        
+        this.distractTileX = tileX;
+        this.distractTileY = tileY;
+        this.patrolWaypoint = -1;
+        this.path.clear();
+        this.currentPathIndex = 0;
+        this.idleUntil = 0;
+        this.planPending = true;
+        return true;
     }
-
-    private boolean canMoveTo(double x, double y, LevelGenerator level) {
-        if (x < 0 || x + width > level.WIDTH * LevelGenerator.TILE_SIZE ||
-            y < 0 || y + height > level.HEIGHT * LevelGenerator.TILE_SIZE) {
-            return false;
+    
+    public boolean isAlerted(GameClock clock) {
+        return clock.now() < alertUntil;
+    }
+    
+    public boolean isInvestigating() {
+        return investigating;
+    }
+    
+    public boolean isPlanPending() {
+        return planPending;
+    }
+    
+    // The expensive part of guard thinking, run by the AIScheduler when its
+    // budget allows: a path to the distraction, the next tile of a shared
+    // search, or the next patrol leg and the pause before walking it. Returns
+    // the tiles its path searches expanded, which the scheduler charges for.
+    public int plan(GameClock clock, SearchBlackboard search) {
+        planPending = false;
+        
+        if (distractTileX >= 0) {
+            int startX = (int)(getX() / LevelGenerator.TILE_SIZE);
+            int startY = (int)(getY() / LevelGenerator.TILE_SIZE);
+            Pathfinder.findPath(level, startX, startY, distractTileX, distractTileY, path);
+            this.currentPathIndex = 0;
+            distractTileX = -1;
+            distractTileY = -1;
+        } else if (investigating && planSearch(clock, search)) {
+            this.currentPathIndex = 0;
+        } else {
+            investigating = false;
+            patrol();
+            idleUntil = clock.now() + rand.nextInt(2000) + 1000;
         }
-
-        int[] checkX = {
-            (int) (x / LevelGenerator.TILE_SIZE),
-            (int) ((x + width - 1) / LevelGenerator.TILE_SIZE)
-        };
-        int[] checkY = {
-            (int) (y / LevelGenerator.TILE_SIZE),
-            (int) ((y + height - 1) / LevelGenerator.TILE_SIZE)
-        };
-
-        for (int cx : checkX) {
-            for (int cy : checkY) {
-                if (!level.isWalkable(cx, cy) && level.getTile(cx, cy) != LevelGenerator.EXIT) {
-                    return false;
-                }
+        updateFacing();
+        return path.takeSearchWork();
+    }
+    
+    // Hands back the tile just searched and paths to a fresh claim. A claim
+    // that cannot be reached is handed back as searched and the next one tried.
+    private boolean planSearch(GameClock clock, SearchBlackboard search) {
+        int startX = (int)(getX() / LevelGenerator.TILE_SIZE);
+        int startY = (int)(getY() / LevelGenerator.TILE_SIZE);
+        
+        for (int attempts = 0; attempts < 3; attempts++) {
+            search.release(searchTile, true, clock);
+            searchTile = search.claimFrontier(level, clock);
+            if (searchTile == SearchBlackboard.NONE) return false;
+            
+            if (Pathfinder.findPath(level, startX, startY, searchTile % LevelGenerator.WIDTH,
+                                    searchTile / LevelGenerator.WIDTH, path)) {
+                return true;
             }
         }
-        return true;
+        search.release(searchTile, true, clock);
+        searchTile = SearchBlackboard.NONE;
+        return false;
     }
 
-    public void render(GraphicsContext gc) {
-        double centerX = x + width / 2;
-        double centerY = y + height / 2;
-
-        double radius = (type == GuardType.STANDING) ? standingRadius : movingRadius;
-        Color visionColor = (type == GuardType.STANDING) ? 
-            Color.rgb(255, 0, 0, 0.2) : Color.rgb(255, 165, 0, 0.2);
+    // On a waypoint, the next leg is copied from the PatrolGraph. Anywhere
+    // else, after a distraction or on spawn, the guard searches its way back
+    // to the nearest waypoint of its loop.
+    private void patrol() {
+        PatrolGraph patrols = level.getPatrolGraph();
+        this.currentPathIndex = 0;
+        if (patrolLoop < 0) {
+            findNewPath(level);
+            return;
+        }
+        
+        if (patrolWaypoint >= 0) {
+            int from = patrolWaypoint;
+            waypointsReached++;
+            patrolWaypoint = patrols.nextWaypoint(from);
+            if (patrols.loadLeg(from, path)) return;
+            patrolWaypoint = -1;
+            findNewPath(level);
+            return;
+        }
         
-        gc.setFill(visionColor);
-        gc.fillOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
+        int guardTileX = (int) (getX() / LevelGenerator.TILE_SIZE);
+        int guardTileY = (int) (getY() / LevelGenerator.TILE_SIZE);
+        int waypoint = patrols.nearestWaypoint(patrolLoop, guardTileX, guardTileY);
+        if (Pathfinder.findPath(level, guardTileX, guardTileY,
+                                patrols.getWaypointX(waypoint), patrols.getWaypointY(waypoint), path)) {
+            patrolWaypoint = waypoint;
+        } else {
+            findNewPath(level);
+        }
+    }
+
+    private void findNewPath(LevelGenerator level) {
+        int guardTileX = (int) (getX() / LevelGenerator.TILE_SIZE);
+        int guardTileY = (int) (getY() / LevelGenerator.TILE_SIZE);
 
-        gc.drawImage(currentImage, x, y, width, height);
+        for (int attempts = 0; attempts < 50; attempts++) {
+            int tile = level.getRandomFloorTile(rand);
+            if (Pathfinder.findPath(level, guardTileX, guardTileY,
+                                    tile % LevelGenerator.WIDTH, tile / LevelGenerator.WIDTH, path)) {
+                break;
+            }
+        }
+        this.currentPathIndex = 0;
     }
 
-    public boolean canSee(Player player, List<CherryBombEffect> cherryBombs) {
-        if (player == null || player.isHidden()) return false;
+    // Spotted anywhere inside the cone once one sample point is in clear sight.
+    // The angle falloff grades the score but does not narrow detection, so the
+    // cone edge is where it was before scores existed.
+    public boolean canSee(Player player, CherryBombLayer cherryBombs) {
+        return clearSamples(player, cherryBombs, 1) > 0;
+    }
+    
+    // 0..1: share of the player's sample points in clear sight, scaled by how
+    // close the player is to the centre of the vision cone
+    public double getVisibilityScore(Player player, CherryBombLayer cherryBombs) {
+        int clear = clearSamples(player, cherryBombs, SAMPLE_OFFSETS.length);
+        if (clear == 0) return 0;
+        return getDetectionAngleFactor(player) * clear / SAMPLE_OFFSETS.length;
+    }
+    
+    // Sample points of the player inside the guard's range and cone with a
+    // clear line from the guard, counting no further than stopAt
+    private int clearSamples(Player player, CherryBombLayer cherryBombs, int stopAt) {
+        if (player == null || player.isHidden()) return 0;
         
-        for (CherryBombEffect bomb : cherryBombs) {
-            if (bomb.affectsGuard(this)) {
-                if (type == GuardType.STANDING) {
-                    return false;
-                } else {
-                    double effectiveRadius = getVisionRadius() * 0.5;
-                    double distanceSq = Math.pow(player.getX() - (x + width/2), 2) + 
-                                      Math.pow(player.getY() - (y + height/2), 2);
-                    if (distanceSq > effectiveRadius * effectiveRadius) {
-                        return false;
-                    }
+        double x = getX();
+        double y = getY();
+        if (cherryBombs.coversGuard(this)) {
+            if (type == GuardType.STANDING) {
+                return 0;
+            } else {
+                double effectiveRadius = getVisionRadius() * 0.5;
+                double distanceSq = Math.pow(player.getX() - (x + width/2), 2) + 
+                                  Math.pow(player.getY() - (y + height/2), 2);
+                if (distanceSq > effectiveRadius * effectiveRadius) {
+                    return 0;
                 }
             }
         }
         
         double guardCenterX = x + width/2;
         double guardCenterY = y + height/2;
-        double playerCenterX = player.getX();
-        double playerCenterY = player.getY();
         
-        if (level == null) return false;
+        if (level == null) return 0;
         
-        double dx = playerCenterX - guardCenterX;
-        double dy = playerCenterY - guardCenterY;
+        double dx = player.getX() - guardCenterX;
+        double dy = player.getY() - guardCenterY;
         double distanceSq = dx * dx + dy * dy;
         
-        double radius = getVisionRadius();
-        
-        if (player.isSneakyClass()) {
-            radius *= 0.8;
-        }
+        double radius = getVisionRadius() * player.getStats().getDetectionRadiusMultiplier();
         
         if (distanceSq > radius * radius) {
-            return false;
+            return 0;
         }
         
         if (getDetectionAngleFactor(player) <= 0) {
-            return false;
+            return 0;
         }
         
-        int steps = (int)(Math.sqrt(distanceSq) / 4);
-        if (steps == 0) steps = 1;
+        int guardTileX = (int)(guardCenterX / LevelGenerator.TILE_SIZE);
+        int guardTileY = (int)(guardCenterY / LevelGenerator.TILE_SIZE);
+        double halfW = player.getWidth() / 2 - 1;
+        double halfH = player.getHeight() / 2 - 1;
+        LineOfSightCache sight = level.getSightCache();
         
-        for (int i = 1; i <= steps; i++) {
-            double t = (double)i / steps;
-            double checkX = guardCenterX + dx * t;
-            double checkY = guardCenterY + dy * t;
-            
-            int tileX = (int)(checkX / LevelGenerator.TILE_SIZE);
-            int tileY = (int)(checkY / LevelGenerator.TILE_SIZE);
+        int clear = 0;
+        for (int[] offset : SAMPLE_OFFSETS) {
+            int tileX = (int)((player.getX() + offset[0] * halfW) / LevelGenerator.TILE_SIZE);
+            int tileY = (int)((player.getY() + offset[1] * halfH) / LevelGenerator.TILE_SIZE);
             
-            if (!level.isWalkable(tileX, tileY)) {
-                return false;
+            if (sight.isClear(guardTileX, guardTileY, tileX, tileY)) {
+                clear++;
+                if (clear >= stopAt) break;
             }
         }
         
-        return true;
+        return clear;
     }
 
+    // Also puts the guard back on duty: a level reset forgets distractions and
+    // noises it was reacting to
     public void setPosition(double x, double y) {
-        this.x = x;
-        this.y = y;
+        entities.setPosition(entity, x, y, width, height);
+        setType(initialType);
+        this.isDistracted = false;
+        this.alertUntil = 0;
+        this.investigating = false;
+        this.searchTile = SearchBlackboard.NONE;
+        this.patrolWaypoint = -1;
+        this.distractTileX = -1;
+        this.distractTileY = -1;
         if (type == GuardType.MOVING) {
-            this.path = new ArrayList<>();
+            this.path.clear();
             this.currentPathIndex = 0;
+            updateFacing();
         }
     }
 
@@ -254,56 +438,53 @@ public class GuardVariant {
     
     public double getDetectionAngleFactor(Player player) {
         if (player == null) return 0;
+        int row = entities.rowOf(entity);
+        return angleFactor(player.getX() - (entities.x[row] + width/2), player.getY() - (entities.y[row] + height/2),
+                           entities.facingX[row], entities.facingY[row]);
+    }
+    
+    // 1 inside the direct view, 0 outside the field of view, falling off
+    // linearly in degrees between the two; (dx, dy) runs from the guard to
+    // the target and the facing is a unit vector
+    static double angleFactor(double dx, double dy, double facingX, double facingY) {
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance == 0) return 1.0;
         
-        double guardCenterX = x + width/2;
-        double guardCenterY = y + height/2;
-        
-        double facingAngle;
-        if (type == GuardType.STANDING) {
-            facingAngle = System.currentTimeMillis() % 360;
-        } else {
-            if (path != null && !path.isEmpty() && currentPathIndex < path.size()) {
-                int[] target = path.get(currentPathIndex);
-                double targetX = target[0] * LevelGenerator.TILE_SIZE;
-                double targetY = target[1] * LevelGenerator.TILE_SIZE;
-                facingAngle = Math.toDegrees(Math.atan2(targetY - guardCenterY, targetX - guardCenterX));
-            } else {
-                facingAngle = 0;
-            }
-        }
-        
-        double angleToPlayer = Math.toDegrees(Math.atan2(
-            player.getY() - guardCenterY, 
-            player.getX() - guardCenterX
-        ));
-        
-        double angleDiff = Math.abs(normalizeAngle(angleToPlayer - facingAngle));
+        double cosAngle = (dx * facingX + dy * facingY) / distance;
         
-        if (angleDiff > FIELD_OF_VIEW/2) {
+        if (cosAngle < COS_HALF_FOV) {
             return 0;
-        } else if (angleDiff <= DIRECT_VIEW_ANGLE/2) {
+        } else if (cosAngle >= COS_HALF_DIRECT) {
             return 1.0;
-        } else {
-            return 1.0 - ((angleDiff - DIRECT_VIEW_ANGLE/2) / (FIELD_OF_VIEW/2 - DIRECT_VIEW_ANGLE/2));
         }
+        double t = (cosAngle - COS_HALF_FOV) * FALLOFF_SCALE;
+        int i = Math.min((int) t, FALLOFF_STEPS - 1);
+        return FALLOFF[i] + (FALLOFF[i + 1] - FALLOFF[i]) * (t - i);
     }
     
-    private double normalizeAngle(double angle) {
-        angle = angle % 360;
-        if (angle > 180) {
-            angle -= 360;
-        } else if (angle < -180) {
-            angle += 360;
-        }
-        return angle;
-    }
+    public double getFacingX() { return entities.facingX[entities.rowOf(entity)]; }
+    public double getFacingY() { return entities.facingY[entities.rowOf(entity)]; }
     
     public double getVisionRadius() {
-        return (type == GuardType.STANDING) ? standingRadius : movingRadius;
+        return entities.visionRadius[entities.rowOf(entity)];
+    }
+
+    // Interpolated top-left corner between the previous and current tick
+    public double getDrawX(double alpha) {
+        int row = entities.rowOf(entity);
+        return entities.prevX[row] + (entities.x[row] - entities.prevX[row]) * alpha;
+    }
+    public double getDrawY(double alpha) {
+        int row = entities.rowOf(entity);
+        return entities.prevY[row] + (entities.y[row] - entities.prevY[row]) * alpha;
     }
+    public boolean isRunning() { return running; }
+    public int getPatrolLoop() { return patrolLoop; }
+    public int getWaypointsReached() { return waypointsReached; }
 
-    public double getX() { return x; }
-    public double getY() { return y; }
+    public int getEntity() { return entity; }
+    public double getX() { return entities.x[entities.rowOf(entity)]; }
+    public double getY() { return entities.y[entities.rowOf(entity)]; }
     public double getWidth() { return width; }
     public double getHeight() { return height; }
 }
\ No newline at end of file
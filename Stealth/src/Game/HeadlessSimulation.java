@@ -0,0 +1,33 @@
+package Game;
+
+// Runs the World without a window, for soak tests and quick throughput numbers.
+// Usage: HeadlessSimulation [ticks] [class] [extra guards]
+public class HeadlessSimulation {
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String classType = args.length > 1 ? args[1] : "Sneaky";
+        int extraGuards = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        World world = new World(classType, GameEvents.NONE, GameClock.simulated());
+        world.addGuards(extraGuards);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            world.tick();
+            if (world.isSpotted()) {
+                world.resetLevel();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        System.out.printf("%d ticks in %.3f s (%.0f ticks/s)%n", ticks, seconds, ticks / seconds);
+        DetectionCache cache = world.getDetectionCache();
+        System.out.printf("detection checks: %d evaluated, %d skipped%n",
+                          cache.getEvaluations(), cache.getSkipped());
+        AIScheduler ai = world.getAIScheduler();
+        System.out.printf("guard plans: %d run, %d work units, %d ticks carried work over%n",
+                          ai.getJobsRun(), ai.getUnitsSpent(), ai.getTicksOverBudget());
+        System.out.printf("search tiles claimed: %d%n", world.getSearch().getClaims());
+    }
+}
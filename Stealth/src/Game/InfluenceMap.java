@@ -0,0 +1,227 @@
+package Game;
+
+import java.util.Arrays;
+import java.util.List;
+
+// How dangerous each tile is to stand on, for the HUD overlay and for bots
+// steering round guards. Two layers are combined on read:
+//  - vision: what guards can see from where they are now, weighted by distance
+//  - patrol: how often the level's patrol loops cross the tile, fixed per level
+//
+// Each guard's vision footprint is stamped into the vision layer and the guard
+// remembers what it added. A footprint only depends on the guard's tile, its
+// type, whether a cherry bomb cloud covers it and, for moving guards, which of
+// eight directions it faces (standing guards sweep a full turn every 0.36 s,
+// so their whole disc is watched). A cloud over the guard shrinks its
+// footprint the way GuardVariant.clearSamples shrinks the guard's sight:
+// nothing for a standing guard, half the radius for a moving one. A cloud
+// over the player's tile hides nothing. When that key changes the old
+// footprint is subtracted and a new one added. Both halves are budgeted: at
+// most KEYS_PER_TICK guards are checked and at most RESTAMPS_PER_TICK
+// footprints redrawn per tick, round-robin, so with hundreds of guards the
+// map lags by a few ticks instead of the tick growing.
+// Weights are fixed-point so subtracting a footprint restores the exact value.
+public class InfluenceMap {
+    static final int KEYS_PER_TICK = 64;
+    static final int RESTAMPS_PER_TICK = 8;
+    static final double PATROL_WEIGHT = 0.35;
+
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+    private static final int SECTORS = 8;
+    private static final int ONE = 256;
+    private static final int NO_STAMP = -1;
+
+    private static final double[] SECTOR_COS = new double[SECTORS];
+    private static final double[] SECTOR_SIN = new double[SECTORS];
+    static {
+        for (int s = 0; s < SECTORS; s++) {
+            SECTOR_COS[s] = Math.cos(2 * Math.PI * s / SECTORS);
+            SECTOR_SIN[s] = Math.sin(2 * Math.PI * s / SECTORS);
+        }
+    }
+
+    private final CherryBombLayer bombs;
+    private LevelGenerator level;
+
+    private final int[] vision = new int[TILE_COUNT];
+    private final float[] patrol = new float[TILE_COUNT];
+
+    // Per guard, by list index: the key its footprint was drawn for and the
+    // tiles and weights it added
+    private int[] stampKey = new int[0];
+    private int[][] footTiles = new int[0][];
+    private int[][] footWeights = new int[0][];
+    private int[] footCount = new int[0];
+    private int cursor = 0;
+
+    private long restamps = 0;
+    private long ticksOverBudget = 0;
+
+    public InfluenceMap(CherryBombLayer bombs) {
+        this.bombs = bombs;
+    }
+
+    // Forgets every footprint and rebuilds the patrol layer for a new level
+    public void reset(LevelGenerator level) {
+        this.level = level;
+        Arrays.fill(vision, 0);
+        Arrays.fill(stampKey, NO_STAMP);
+        Arrays.fill(footCount, 0);
+        cursor = 0;
+
+        Arrays.fill(patrol, 0);
+        PatrolGraph patrols = level.getPatrolGraph();
+        float max = 0;
+        for (int i = 0; i < patrols.getLegTileCount(); i++) {
+            int tile = patrols.getLegTile(i);
+            patrol[tile]++;
+            max = Math.max(max, patrol[tile]);
+        }
+        if (max > 0) {
+            for (int i = 0; i < TILE_COUNT; i++) patrol[i] /= max;
+        }
+    }
+
+    public void update(List<GuardVariant> guards) {
+        int count = guards.size();
+        if (count == 0) return;
+        ensureGuards(count);
+        if (cursor >= count) cursor = 0;
+
+        int redrawn = 0;
+        int scan = Math.min(count, KEYS_PER_TICK);
+        for (int scanned = 0; scanned < scan; scanned++) {
+            int i = cursor;
+            GuardVariant guard = guards.get(i);
+            int key = keyOf(guard);
+            if (key == stampKey[i]) {
+                cursor = (cursor + 1) % count;
+                continue;
+            }
+            if (redrawn == RESTAMPS_PER_TICK) {
+                ticksOverBudget++;
+                break;
+            }
+            cursor = (cursor + 1) % count;
+
+            unstamp(i);
+            stamp(i, guard, key);
+            redrawn++;
+        }
+        restamps += redrawn;
+    }
+
+    // Guard tile, then facing sector for moving guards, then the type bit,
+    // then whether a cherry bomb covers the guard
+    private int keyOf(GuardVariant guard) {
+        int tx = (int) ((guard.getX() + guard.getWidth() / 2) / LevelGenerator.TILE_SIZE);
+        int ty = (int) ((guard.getY() + guard.getHeight() / 2) / LevelGenerator.TILE_SIZE);
+        int tile = Math.max(0, Math.min(TILE_COUNT - 1, ty * LevelGenerator.WIDTH + tx));
+
+        int covered = bombs.coversGuard(guard) ? 1 : 0;
+        if (guard.getType() == GuardVariant.GuardType.STANDING) {
+            return (tile * SECTORS * 2 + 1) * 2 + covered;
+        }
+        // Nearest of the eight directions, by dot product rather than atan2
+        int sector = 0;
+        double best = -2;
+        for (int s = 0; s < SECTORS; s++) {
+            double dot = guard.getFacingX() * SECTOR_COS[s] + guard.getFacingY() * SECTOR_SIN[s];
+            if (dot > best) {
+                best = dot;
+                sector = s;
+            }
+        }
+        return (tile * SECTORS + sector) * 4 + covered;
+    }
+
+    private void stamp(int i, GuardVariant guard, int key) {
+        stampKey[i] = key;
+        boolean covered = (key & 1) == 1;
+        boolean standing = (key & 2) == 2;
+        int sector = (key >> 2) % SECTORS;
+        int tile = (key >> 2) / SECTORS;
+        int cx = tile % LevelGenerator.WIDTH;
+        int cy = tile / LevelGenerator.WIDTH;
+
+        double radius = guard.getVisionRadius();
+        if (covered) {
+            if (standing) {
+                footCount[i] = 0;
+                return;
+            }
+            radius *= 0.5;
+        }
+        int reach = (int) Math.ceil(radius / LevelGenerator.TILE_SIZE);
+        int side = 2 * reach + 1;
+        if (footTiles[i] == null || footTiles[i].length < side * side) {
+            footTiles[i] = new int[side * side];
+            footWeights[i] = new int[side * side];
+        }
+
+        LineOfSightCache sight = level.getSightCache();
+        int[] tiles = footTiles[i];
+        int[] weights = footWeights[i];
+        int n = 0;
+        for (int ty = Math.max(0, cy - reach); ty <= Math.min(LevelGenerator.HEIGHT - 1, cy + reach); ty++) {
+            for (int tx = Math.max(0, cx - reach); tx <= Math.min(LevelGenerator.WIDTH - 1, cx + reach); tx++) {
+                double dx = (tx - cx) * LevelGenerator.TILE_SIZE;
+                double dy = (ty - cy) * LevelGenerator.TILE_SIZE;
+                double distance = Math.sqrt(dx * dx + dy * dy);
+                if (distance > radius) continue;
+                if (!standing && distance > 0
+                    && (dx * SECTOR_COS[sector] + dy * SECTOR_SIN[sector]) / distance < GuardVariant.COS_HALF_FOV) {
+                    continue;
+                }
+                if (!sight.isClear(cx, cy, tx, ty)) continue;
+
+                // Full danger next to the guard, half at the edge of its sight
+                int weight = (int) (ONE * (1 - 0.5 * distance / radius));
+                int index = ty * LevelGenerator.WIDTH + tx;
+                vision[index] += weight;
+                tiles[n] = index;
+                weights[n] = weight;
+                n++;
+            }
+        }
+        footCount[i] = n;
+    }
+
+    private void unstamp(int i) {
+        int[] tiles = footTiles[i];
+        int[] weights = footWeights[i];
+        for (int n = 0; n < footCount[i]; n++) {
+            vision[tiles[n]] -= weights[n];
+        }
+        footCount[i] = 0;
+        stampKey[i] = NO_STAMP;
+    }
+
+    private void ensureGuards(int count) {
+        if (stampKey.length >= count) return;
+
+        int first = stampKey.length;
+        int capacity = Math.max(count, stampKey.length * 2);
+        stampKey = Arrays.copyOf(stampKey, capacity);
+        footTiles = Arrays.copyOf(footTiles, capacity);
+        footWeights = Arrays.copyOf(footWeights, capacity);
+        footCount = Arrays.copyOf(footCount, capacity);
+        Arrays.fill(stampKey, first, capacity, NO_STAMP);
+    }
+
+    // 0 for a tile nobody watches or walks, 1 for one in plain view of a guard
+    public double getDanger(int tx, int ty) {
+        if (tx < 0 || tx >= LevelGenerator.WIDTH || ty < 0 || ty >= LevelGenerator.HEIGHT) return 1;
+
+        int tile = ty * LevelGenerator.WIDTH + tx;
+        return Math.min(1.0, (double) vision[tile] / ONE + PATROL_WEIGHT * patrol[tile]);
+    }
+
+    public long getRestamps() {
+        return restamps;
+    }
+
+    public long getTicksOverBudget() {
+        return ticksOverBudget;
+    }
+}
@@ -0,0 +1,141 @@
+package Game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// A recorded run: level seed, player class and the InputSnapshot of every tick.
+// Ticks are run-length encoded as varint pairs (snapshot bits << 1, count) since
+// inputs change rarely compared to the tick rate. Level commands are stored
+// inline as a single varint (command << 1 | 1), applied before the next tick.
+public class InputRecording {
+    private static final int MAGIC = 0x53544C52; // "STLR"
+    private static final int VERSION = 2;
+
+    static final int RESET = 1;
+    static final int NEXT_LEVEL = 2;
+
+    private final long seed;
+    private final String classType;
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+    private int runBits = -1;
+    private int runLength = 0;
+    private long tickCount = 0;
+
+    public InputRecording(long seed, String classType) {
+        this.seed = seed;
+        this.classType = classType;
+    }
+
+    public void recordTick(int bits) {
+        if (bits != runBits) {
+            flushRun();
+            runBits = bits;
+        }
+        runLength++;
+        tickCount++;
+    }
+
+    public void recordCommand(int command) {
+        flushRun();
+        writeVarint(command << 1 | 1);
+    }
+
+    private void flushRun() {
+        if (runLength == 0) return;
+
+        writeVarint(runBits << 1);
+        writeVarint(runLength);
+        runLength = 0;
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            stream.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        stream.write(value);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        flushRun();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(seed);
+        data.writeUTF(classType);
+        data.writeLong(tickCount);
+        data.writeInt(stream.size());
+        stream.writeTo(data);
+        data.flush();
+    }
+
+    public static InputRecording readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) throw new IOException("Not a Stealth recording");
+        int version = data.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Unsupported recording version " + version);
+
+        InputRecording recording = new InputRecording(data.readLong(), data.readUTF());
+        recording.tickCount = data.readLong();
+        byte[] body = new byte[data.readInt()];
+        data.readFully(body);
+        recording.stream.write(body, 0, body.length);
+        return recording;
+    }
+
+    // Feeds the recorded inputs into a World built from this recording's seed and
+    // class, ticking as fast as possible. Returns the number of ticks replayed.
+    public long replay(World world) {
+        flushRun();
+        byte[] body = stream.toByteArray();
+        int[] pos = {0};
+        long ticks = 0;
+
+        while (pos[0] < body.length) {
+            int value = readVarint(body, pos);
+            if ((value & 1) != 0) {
+                int command = value >>> 1;
+                if (command == RESET) {
+                    world.resetLevel();
+                } else if (command == NEXT_LEVEL) {
+                    world.nextLevel();
+                }
+                continue;
+            }
+
+            InputSnapshot input = InputSnapshot.fromBits(value >>> 1);
+            int run = readVarint(body, pos);
+            for (int i = 0; i < run; i++) {
+                world.setInput(input);
+                world.tick();
+            }
+            ticks += run;
+        }
+        return ticks;
+    }
+
+    private static int readVarint(byte[] body, int[] pos) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = body[pos[0]++] & 0xFF;
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    public World createWorld(GameEvents events) {
+        return new World(classType, events, GameClock.simulated(), seed);
+    }
+
+    public long getSeed() { return seed; }
+    public String getClassType() { return classType; }
+    public long getTickCount() { return tickCount; }
+}
@@ -0,0 +1,42 @@
+package Game;
+
+// Immutable view of the player's input for one tick: which actions are held and
+// which were pressed or released since the previous tick. All three sets are
+// Action bitmasks packed into a single int so a tick reads them without boxing.
+public final class InputSnapshot {
+    public static final InputSnapshot NONE = new InputSnapshot(0, 0, 0);
+
+    private final int held;
+    private final int pressed;
+    private final int released;
+
+    public InputSnapshot(int held, int pressed, int released) {
+        this.held = held;
+        this.pressed = pressed;
+        this.released = released;
+    }
+
+    public static InputSnapshot fromBits(int bits) {
+        return new InputSnapshot(bits & 0xFF, (bits >>> 8) & 0xFF, (bits >>> 16) & 0xFF);
+    }
+
+    public int toBits() {
+        return held | pressed << 8 | released << 16;
+    }
+
+    public boolean isHeld(Action action) {
+        return (held & action.bit()) != 0;
+    }
+
+    public boolean wasPressed(Action action) {
+        return (pressed & action.bit()) != 0;
+    }
+
+    public boolean wasReleased(Action action) {
+        return (released & action.bit()) != 0;
+    }
+
+    public int getHeld() { return held; }
+    public int getPressed() { return pressed; }
+    public int getReleased() { return released; }
+}
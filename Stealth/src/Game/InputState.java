@@ -0,0 +1,43 @@
+package Game;
+
+// Live input written by the event thread. The simulation calls snapshot() once per
+// tick; press and release edges are latched until then so a tap shorter than a
+// tick is still seen.
+public class InputState {
+    private int held = 0;
+    private int pressed = 0;
+    private int released = 0;
+    private InputSnapshot last = InputSnapshot.NONE;
+
+    public void press(Action action) {
+        int bit = action.bit();
+        if ((held & bit) == 0) {
+            held |= bit;
+            pressed |= bit;
+        }
+    }
+
+    public void release(Action action) {
+        int bit = action.bit();
+        if ((held & bit) != 0) {
+            held &= ~bit;
+            released |= bit;
+        }
+    }
+
+    public void clear() {
+        released |= held;
+        held = 0;
+    }
+
+    public InputSnapshot snapshot() {
+        // Steady state (same keys held, no edges) reuses the previous snapshot
+        if (pressed != 0 || released != 0 || held != last.getHeld()
+                || last.getPressed() != 0 || last.getReleased() != 0) {
+            last = new InputSnapshot(held, pressed, released);
+            pressed = 0;
+            released = 0;
+        }
+        return last;
+    }
+}
@@ -23,11 +23,29 @@ public class LevelGenerator {
     protected  int[][] map;
     protected final Random rand;
     private int exitX, exitY;
+    private LineOfSightCache sightCache;
+    // Packed y * WIDTH + x of every spawnable floor tile, in the order
+    // getRandomFloorPosition has always drawn from; rebuilt after setTile
+    private final int[] floorTiles = new int[WIDTH * HEIGHT];
+    private int floorTileCount = -1;
+    private PatrolGraph patrolGraph;
 
     public LevelGenerator() {
+        this(new Random().nextLong());
+    }
+
+    public LevelGenerator(long seed) {
         this.map = new int[WIDTH][HEIGHT];
-        this.rand = new Random();
+        this.rand = new Random(seed);
         generateOpenArena();
+        collectFloorTiles();
+        this.patrolGraph = new PatrolGraph(this, floorTiles, floorTileCount);
+    }
+
+    // Seed for per-level random streams (guards), drawn from the level's own
+    // generator so a level seed reproduces everything on it
+    public long nextSeed() {
+        return rand.nextLong();
     }
 
     private void generateOpenArena() {
@@ -184,8 +202,24 @@ public class LevelGenerator {
 
     public boolean isWalkable(int x, int y) {
         if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT) return false;
-        int tile = map[x][y];
-        return tile == FLOOR || tile == EXIT; // Both floor and exit tiles are walkable
+        return isWalkableTile(map[x][y]);
+    }
+
+    // The one definition of walkable ground, shared by collision, pathfinding,
+    // noise, searches and bots
+    public static boolean isWalkableTile(int tile) {
+        switch (tile) {
+            case FLOOR:
+            case EXIT:
+            case PLATFORM:
+                return true;
+            case GRAPPLE_POINT: // Anchor set in a wall, reached by rope rather than on foot
+            case GAP:           // Nothing to stand on
+            case HIDEOBJ:       // Crates and bushes are hidden beside, not walked over
+            case WALL:
+            default:
+                return false;
+        }
     }
 
     public boolean isHideable(int x, int y) {
@@ -195,31 +229,65 @@ public class LevelGenerator {
     
     public void setTile(int x, int y, int tileType) {
         if (x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT) {
+            if (map[x][y] != tileType) {
+                if (sightCache != null) sightCache.invalidate();
+                floorTileCount = -1;
+            }
             map[x][y] = tileType;
         }
     }
     
+    // Baked from the generated map; setTile only ever restores generated
+    // tiles, so the routes stay valid for the life of the level
+    public PatrolGraph getPatrolGraph() {
+        return patrolGraph;
+    }
+    
+    public LineOfSightCache getSightCache() {
+        if (sightCache == null) {
+            sightCache = new LineOfSightCache(this);
+        }
+        return sightCache;
+    }
+    
 
     public int getExitX() { return exitX; }
     public int getExitY() { return exitY; }
 
     public int[] getRandomFloorPosition() {
-        ArrayList<int[]> validPositions = new ArrayList<>();
-        
-        // Find all floor tiles not too close to borders or exit
+        return getRandomFloorPosition(rand);
+    }
+
+    // Draws from the caller's stream, so guards picking patrol targets neither
+    // share the level's Random nor depend on the order they update in
+    public int[] getRandomFloorPosition(Random random) {
+        int tile = getRandomFloorTile(random);
+        return new int[]{tile % WIDTH, tile / WIDTH};
+    }
+
+    // Same draw as getRandomFloorPosition, packed as y * WIDTH + x so callers
+    // that plan every few seconds do not allocate
+    public int getRandomFloorTile(Random random) {
+        if (floorTileCount < 0) {
+            collectFloorTiles();
+        }
+        if (floorTileCount == 0) {
+            return (HEIGHT/2) * WIDTH + WIDTH/2; // Fallback position
+        }
+        return floorTiles[random.nextInt(floorTileCount)];
+    }
+
+    // Floor tiles not too close to borders or exit
+    private void collectFloorTiles() {
+        int count = 0;
         for (int x = 2; x < WIDTH - 2; x++) {
             for (int y = 2; y < HEIGHT - 2; y++) {
                 if (map[x][y] == FLOOR && !isNearExit(x, y)) {
-                    validPositions.add(new int[]{x, y});
+                    floorTiles[count++] = y * WIDTH + x;
                 }
             }
         }
-        
-        if (validPositions.isEmpty()) {
-            return new int[]{WIDTH/2, HEIGHT/2}; // Fallback position
-        }
-        
-        return validPositions.get(rand.nextInt(validPositions.size()));
+        floorTileCount = count;
     }
 
     // Helper method for debugging
@@ -0,0 +1,26 @@
+package Game;
+
+// Removes entities whose LIFETIME has run out. onExpired sees the row before it
+// is destroyed, so owners can undo whatever the entity contributed.
+public class LifetimeSystem {
+    public interface ExpiryListener {
+        void onExpired(EntityStore entities, int row);
+    }
+
+    // Returns how many entities expired this tick
+    public static int update(EntityStore entities, long now, ExpiryListener listener) {
+        int expired = 0;
+        // Back to front, so the row swapped into a hole has already been checked
+        for (int row = entities.size() - 1; row >= 0; row--) {
+            if (!entities.has(row, EntityStore.LIFETIME) || now <= entities.expiresAt[row]) continue;
+
+            listener.onExpired(entities, row);
+            entities.destroy(entities.idAt(row));
+            expired++;
+        }
+        return expired;
+    }
+
+    private LifetimeSystem() {
+    }
+}
@@ -0,0 +1,80 @@
+package Game;
+
+import java.util.Arrays;
+
+// Tile-to-tile line of sight with the answer remembered per ordered tile pair. A
+// ray is blocked by any non-walkable tile after the start, the same rule canSee
+// used for its pixel march. The walk skips its first tile, checks its last and
+// steps differently in each direction, so A to B and B to A are traced and
+// stored separately. The cache is dropped whenever the level's tiles change.
+public class LineOfSightCache {
+    private static final byte UNKNOWN = 0;
+    private static final byte CLEAR = 1;
+    private static final byte BLOCKED = 2;
+
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+
+    private final LevelGenerator level;
+    private final byte[] results = new byte[TILE_COUNT * TILE_COUNT];
+
+    private long lookups = 0;
+    private long traces = 0;
+
+    public LineOfSightCache(LevelGenerator level) {
+        this.level = level;
+    }
+
+    public boolean isClear(int x1, int y1, int x2, int y2) {
+        if (!inBounds(x1, y1) || !inBounds(x2, y2)) {
+            return trace(x1, y1, x2, y2);
+        }
+
+        lookups++;
+        int from = y1 * LevelGenerator.WIDTH + x1;
+        int to = y2 * LevelGenerator.WIDTH + x2;
+        byte result = results[from * TILE_COUNT + to];
+
+        if (result == UNKNOWN) {
+            traces++;
+            result = trace(x1, y1, x2, y2) ? CLEAR : BLOCKED;
+            results[from * TILE_COUNT + to] = result;
+        }
+        return result == CLEAR;
+    }
+
+    // Bresenham walk that stops at the first blocking tile
+    private boolean trace(int x1, int y1, int x2, int y2) {
+        int dx = Math.abs(x2 - x1);
+        int dy = Math.abs(y2 - y1);
+        int sx = x1 < x2 ? 1 : -1;
+        int sy = y1 < y2 ? 1 : -1;
+        int err = dx - dy;
+
+        while (x1 != x2 || y1 != y2) {
+            int e2 = 2 * err;
+            if (e2 > -dy) {
+                err -= dy;
+                x1 += sx;
+            }
+            if (e2 < dx) {
+                err += dx;
+                y1 += sy;
+            }
+            if (!level.isWalkable(x1, y1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void invalidate() {
+        Arrays.fill(results, UNKNOWN);
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < LevelGenerator.WIDTH && y >= 0 && y < LevelGenerator.HEIGHT;
+    }
+
+    public long getLookups() { return lookups; }
+    public long getTraces() { return traces; }
+}
@@ -0,0 +1,225 @@
+package Game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Measures a GameServer as its session count grows. Each step opens more
+// connections until the target count is reached, lets them all play for a
+// while with random key presses, and reports the STATE frames received per
+// second and the input latency: the time from sending a SYNC to receiving the
+// first STATE frame whose tick has applied it. Every connection keeps at most
+// one SYNC in flight, so a slow server shows up as latency, not as a backlog.
+//
+// Usage: LoadTestClient [sessions per step, e.g. 10,50,100] [seconds per step]
+//                       [host] [port] [class]
+public class LoadTestClient {
+    private static final long SYNC_INTERVAL_NANOS = 100_000_000;
+    private static final long INPUT_INTERVAL_NANOS = 250_000_000;
+    private static final int MAX_SAMPLES = 1 << 16;
+    private static final Action[] MOVES = {Action.UP, Action.DOWN, Action.LEFT, Action.RIGHT};
+
+    private final String host;
+    private final int port;
+    private final String classType;
+    private final List<Connection> connections = new ArrayList<>();
+
+    private static final class Connection {
+        final Socket socket;
+        final DataOutputStream out;
+        final DataInputStream in;
+        final Random random;
+        final AtomicLong frames = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+
+        // Written by the reader, read and reset by the driver between steps
+        final long[] latencies = new long[MAX_SAMPLES];
+        volatile int latencyCount = 0;
+
+        int syncSent = 0;
+        volatile long syncSentNanos = 0;
+        volatile boolean syncPending = false;
+        long nextSync;
+        long nextInput;
+        Action held;
+
+        Connection(Socket socket, long seed) throws IOException {
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.random = new Random(seed);
+        }
+    }
+
+    public LoadTestClient(String host, int port, String classType) {
+        this.host = host;
+        this.port = port;
+        this.classType = classType;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String steps = args.length > 0 ? args[0] : "10,50,100";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String host = args.length > 2 ? args[2] : "127.0.0.1";
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : NetProtocol.DEFAULT_PORT;
+        String classType = args.length > 4 ? args[4] : "Sneaky";
+
+        LoadTestClient client = new LoadTestClient(host, port, classType);
+        System.out.println("sessions  frames/s  per session  latency p50 ms  p99 ms  max ms  KB/s");
+        try {
+            for (String step : steps.split(",")) {
+                client.runStep(Integer.parseInt(step.trim()), seconds);
+            }
+        } finally {
+            client.closeAll();
+        }
+    }
+
+    private void runStep(int sessions, int seconds) throws IOException {
+        while (connections.size() < sessions) {
+            connections.add(connect(connections.size()));
+        }
+
+        // A second to settle so connection setup is not counted
+        drive(1_000_000_000L);
+        for (Connection connection : connections) {
+            connection.frames.set(0);
+            connection.bytes.set(0);
+            connection.latencyCount = 0;
+        }
+
+        long start = System.nanoTime();
+        drive(seconds * 1_000_000_000L);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long frames = 0, bytes = 0;
+        int samples = 0;
+        for (Connection connection : connections) {
+            frames += connection.frames.get();
+            bytes += connection.bytes.get();
+            samples += connection.latencyCount;
+        }
+        long[] latencies = new long[samples];
+        int at = 0;
+        for (Connection connection : connections) {
+            int count = connection.latencyCount;
+            System.arraycopy(connection.latencies, 0, latencies, at, count);
+            at += count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("%8d  %8.0f  %11.1f  %14.2f  %6.2f  %6.2f  %4.0f%n",
+                          sessions, frames / elapsed, frames / elapsed / sessions,
+                          percentile(latencies, 0.5), percentile(latencies, 0.99),
+                          latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1e6,
+                          bytes / elapsed / 1024);
+    }
+
+    private Connection connect(int index) throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port), 5000);
+        Connection connection = new Connection(socket, index);
+
+        // Fixed seeds keep the levels, and so the server's work, the same run to run
+        NetProtocol.writeHello(connection.out, 1000 + index, classType);
+        connection.out.flush();
+        ByteBuffer frame = ByteBuffer.allocate(NetProtocol.MAX_FRAME);
+        if (NetProtocol.readFrame(connection.in, frame) != NetProtocol.WELCOME) {
+            socket.close();
+            throw new IOException("Server did not accept session " + index);
+        }
+
+        long now = System.nanoTime();
+        connection.nextSync = now + connection.random.nextInt((int) (SYNC_INTERVAL_NANOS / 1000)) * 1000L;
+        connection.nextInput = now;
+        Thread reader = new Thread(() -> read(connection, frame), "load-reader-" + index);
+        reader.setDaemon(true);
+        reader.start();
+        return connection;
+    }
+
+    private void read(Connection connection, ByteBuffer frame) {
+        try {
+            while (true) {
+                if (NetProtocol.readFrame(connection.in, frame) != NetProtocol.STATE) continue;
+                connection.frames.incrementAndGet();
+                connection.bytes.addAndGet(2 + frame.limit());
+                frame.getInt();
+                int ack = frame.getInt();
+                if (connection.syncPending && ack == connection.syncSent) {
+                    int count = connection.latencyCount;
+                    if (count < MAX_SAMPLES) {
+                        connection.latencies[count] = System.nanoTime() - connection.syncSentNanos;
+                        connection.latencyCount = count + 1;
+                    }
+                    connection.syncPending = false;
+                }
+            }
+        } catch (IOException e) {
+            // Closed at the end of the run, or by the server
+        }
+    }
+
+    // Sends every connection's due inputs and SYNCs until the duration is up
+    private void drive(long durationNanos) throws IOException {
+        long end = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < end) {
+            long now = System.nanoTime();
+            for (Connection connection : connections) {
+                boolean wrote = false;
+                if (now >= connection.nextInput) {
+                    if (connection.held != null) {
+                        NetProtocol.writeInput(connection.out, GameCommand.KEY_UP.encode(connection.held.ordinal()));
+                    }
+                    connection.held = MOVES[connection.random.nextInt(MOVES.length)];
+                    NetProtocol.writeInput(connection.out, GameCommand.KEY_DOWN.encode(connection.held.ordinal()));
+                    connection.nextInput = now + INPUT_INTERVAL_NANOS;
+                    wrote = true;
+                }
+                if (now >= connection.nextSync && !connection.syncPending) {
+                    connection.syncSent++;
+                    connection.syncSentNanos = System.nanoTime();
+                    connection.syncPending = true;
+                    NetProtocol.writeInput(connection.out, GameCommand.SYNC.encode(connection.syncSent));
+                    connection.nextSync = now + SYNC_INTERVAL_NANOS;
+                    wrote = true;
+                }
+                if (wrote) connection.out.flush();
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (Connection connection : connections) {
+            try {
+                NetProtocol.writeBye(connection.out);
+                connection.out.flush();
+                connection.socket.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+}
@@ -0,0 +1,82 @@
+package Game;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Wire format between GameServer and its clients, big-endian throughout. Every
+// message is a frame: u16 length of what follows, u8 type, payload.
+//
+//   HELLO   client  u8 version, i64 seed (0 for any), u8 length + UTF-8 class name
+//   INPUT   client  u8 GameCommand ordinal, i32 argument
+//   BYE     client  -
+//   WELCOME server  i32 session id, i64 seed
+//   STATE   server  one SnapshotCodec delta, sent after every tick
+//
+// A client sends HELLO once, then any number of INPUTs; STATE frames follow
+// the WELCOME at the server's tick rate for as long as the socket stays open.
+public final class NetProtocol {
+    public static final int DEFAULT_PORT = 7777;
+    public static final int VERSION = 1;
+
+    public static final byte HELLO = 1;
+    public static final byte INPUT = 2;
+    public static final byte BYE = 3;
+    public static final byte WELCOME = 10;
+    public static final byte STATE = 11;
+
+    public static final int MAX_FRAME = 0xFFFF;
+    static final int INPUT_LENGTH = 1 + 1 + 4;
+
+    private NetProtocol() {
+    }
+
+    public static void writeHello(DataOutputStream out, long seed, String classType) throws IOException {
+        byte[] name = classType.getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xFF) throw new IOException("Class name too long: " + classType);
+        out.writeShort(1 + 1 + 8 + 1 + name.length);
+        out.writeByte(HELLO);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeByte(name.length);
+        out.write(name);
+    }
+
+    public static void writeInput(DataOutputStream out, long command) throws IOException {
+        out.writeShort(INPUT_LENGTH);
+        out.writeByte(INPUT);
+        out.writeByte(GameCommand.typeOf(command).ordinal());
+        out.writeInt(GameCommand.argumentOf(command));
+    }
+
+    public static void writeBye(DataOutputStream out) throws IOException {
+        out.writeShort(1);
+        out.writeByte(BYE);
+    }
+
+    static void putWelcome(ByteBuffer out, int sessionId, long seed) {
+        out.putShort((short) (1 + 4 + 8));
+        out.put(WELCOME);
+        out.putInt(sessionId);
+        out.putLong(seed);
+    }
+
+    // Reads one frame into buffer, which is cleared and left positioned after
+    // the type byte; returns the type
+    public static byte readFrame(DataInputStream in, ByteBuffer buffer) throws IOException {
+        int length = in.readUnsignedShort();
+        if (length == 0) throw new IOException("Empty frame");
+        buffer.clear();
+        in.readFully(buffer.array(), 0, length);
+        buffer.limit(length);
+        return buffer.get();
+    }
+
+    static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.get() & 0xFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
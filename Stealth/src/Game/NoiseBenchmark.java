@@ -0,0 +1,44 @@
+package Game;
+
+import java.util.Random;
+
+// Noise propagations per second with many simultaneous emitters, headless.
+// Usage: NoiseBenchmark [emitters per tick] [ticks]
+public class NoiseBenchmark {
+    public static void main(String[] args) {
+        int emitters = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        LevelGenerator level = new LevelGenerator(1);
+        NoiseSystem noise = new NoiseSystem();
+        Random random = new Random(2);
+
+        // Precomputed emitter positions and loudness so the loop measures propagation only
+        int samples = 8192;
+        int[] tileX = new int[samples];
+        int[] tileY = new int[samples];
+        int[] loudness = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            int tile = level.getRandomFloorTile(random);
+            tileX[i] = tile % LevelGenerator.WIDTH;
+            tileY[i] = tile / LevelGenerator.WIDTH;
+            loudness[i] = 1 + random.nextInt(NoiseSystem.MAX_LOUDNESS);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long reached = 0;
+            int next = 0;
+            long start = System.nanoTime();
+            for (int t = 0; t < ticks; t++) {
+                for (int e = 0; e < emitters; e++) {
+                    int i = next++ & (samples - 1);
+                    noise.emit(tileX[i], tileY[i], loudness[i], NoiseSystem.FOOTSTEP);
+                }
+                reached += noise.propagate(level);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("round %d: %.0f propagations/s, %.1f us each, %d emitters, %.0f tiles reached per tick%n",
+                              round + 1, ticks / seconds, seconds * 1e6 / ticks, emitters, (double) reached / ticks);
+        }
+    }
+}
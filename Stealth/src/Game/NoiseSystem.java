@@ -0,0 +1,178 @@
+package Game;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Sound on the tile grid. Anything can emit() a noise during a tick; at the
+// propagation step all of that tick's noises spread together in one bounded
+// multi-source BFS over non-solid tiles, losing one point of loudness per tile,
+// so the cost depends on the area covered rather than the number of emitters.
+// Each tile keeps the loudest noise reaching it and the tile that noise came
+// from. Guards standing in the covered area then hear() it.
+//
+// The BFS runs as a bucket queue from the loudest level down, so every tile is
+// settled at its final loudness the first time it is expanded. All buffers are
+// allocated once and reused; a generation stamp marks which entries are current.
+public class NoiseSystem {
+    public static final int FOOTSTEP = 0;
+    public static final int CHERRY_BOMB = 1;
+    public static final int ALERT = 2;
+
+    // Loudness is the number of tiles a noise carries
+    public static final int MAX_LOUDNESS = 15;
+    static final int FOOTSTEP_LOUDNESS = 3;
+    static final int CHERRY_BOMB_LOUDNESS = 10;
+    static final int ALERT_LOUDNESS = 6;
+
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+
+    // Noises emitted since the last propagation
+    private int[] pendingTile = new int[16];
+    private int[] pendingLoudness = new int[16];
+    private int[] pendingKind = new int[16];
+    private int pendingCount = 0;
+
+    // Origin tile and kind of each noise in the last propagation, copied out so
+    // notifyGuards can emit alerts into the pending arrays while reading them
+    private int[] sourceTile = new int[16];
+    private int[] sourceKind = new int[16];
+
+    private final int[] loudness = new int[TILE_COUNT];
+    private final int[] source = new int[TILE_COUNT];
+    private final int[] stamp = new int[TILE_COUNT];
+    private int generation = 0;
+
+    private final int[][] buckets = new int[MAX_LOUDNESS + 1][TILE_COUNT];
+    private final int[] bucketSize = new int[MAX_LOUDNESS + 1];
+
+    private int tilesReached = 0;
+
+    public void emit(int tileX, int tileY, int noiseLoudness, int kind) {
+        if (noiseLoudness <= 0 || !inBounds(tileX, tileY)) return;
+
+        if (pendingCount == pendingTile.length) {
+            int capacity = pendingTile.length * 2;
+            pendingTile = Arrays.copyOf(pendingTile, capacity);
+            pendingLoudness = Arrays.copyOf(pendingLoudness, capacity);
+            pendingKind = Arrays.copyOf(pendingKind, capacity);
+        }
+        pendingTile[pendingCount] = tileY * LevelGenerator.WIDTH + tileX;
+        pendingLoudness[pendingCount] = Math.min(noiseLoudness, MAX_LOUDNESS);
+        pendingKind[pendingCount] = kind;
+        pendingCount++;
+    }
+
+    // Spreads every pending noise and returns how many tiles heard something
+    public int propagate(LevelGenerator level) {
+        nextGeneration();
+        Arrays.fill(bucketSize, 0);
+
+        if (sourceTile.length < pendingCount) {
+            sourceTile = new int[pendingTile.length];
+            sourceKind = new int[pendingTile.length];
+        }
+        for (int i = 0; i < pendingCount; i++) {
+            sourceTile[i] = pendingTile[i];
+            sourceKind[i] = pendingKind[i];
+            // Louder wins; between equally loud noises the first emitted wins
+            if (raise(pendingTile[i], pendingLoudness[i], i)) {
+                push(pendingLoudness[i], pendingTile[i]);
+            }
+        }
+        pendingCount = 0;
+
+        int reached = 0;
+        for (int value = MAX_LOUDNESS; value >= 1; value--) {
+            int[] bucket = buckets[value];
+            for (int b = 0; b < bucketSize[value]; b++) {
+                int tile = bucket[b];
+                // Raised again after being queued here; the louder entry handles it
+                if (loudness[tile] != value) continue;
+                reached++;
+                if (value == 1) continue;
+
+                int tx = tile % LevelGenerator.WIDTH;
+                int ty = tile / LevelGenerator.WIDTH;
+                spread(level, tx - 1, ty, value - 1, source[tile]);
+                spread(level, tx + 1, ty, value - 1, source[tile]);
+                spread(level, tx, ty - 1, value - 1, source[tile]);
+                spread(level, tx, ty + 1, value - 1, source[tile]);
+            }
+        }
+        tilesReached = reached;
+        return reached;
+    }
+
+    private void spread(LevelGenerator level, int tx, int ty, int value, int from) {
+        if (!level.isWalkable(tx, ty)) return;
+
+        int tile = ty * LevelGenerator.WIDTH + tx;
+        if (raise(tile, value, from)) {
+            push(value, tile);
+        }
+    }
+
+    private boolean raise(int tile, int value, int from) {
+        if (stamp[tile] == generation && loudness[tile] >= value) return false;
+        stamp[tile] = generation;
+        loudness[tile] = value;
+        source[tile] = from;
+        return true;
+    }
+
+    private void push(int value, int tile) {
+        buckets[value][bucketSize[value]++] = tile;
+    }
+
+    // Lets every guard standing in the last propagation hear it, in list order.
+    // A guard that reacts to anything but another guard's alert reports the
+    // noise's origin as the player's last known tile and raises an alert of its
+    // own, which spreads with the next propagation.
+    public void notifyGuards(List<GuardVariant> guards, SearchBlackboard search, GameClock clock) {
+        if (tilesReached == 0) return;
+
+        for (int i = 0; i < guards.size(); i++) {
+            GuardVariant guard = guards.get(i);
+            int tx = (int) ((guard.getX() + guard.getWidth() / 2) / LevelGenerator.TILE_SIZE);
+            int ty = (int) ((guard.getY() + guard.getHeight() / 2) / LevelGenerator.TILE_SIZE);
+            if (getLoudness(tx, ty) == 0) continue;
+
+            int from = source[ty * LevelGenerator.WIDTH + tx];
+            int origin = sourceTile[from];
+            boolean reacted = guard.hear(origin % LevelGenerator.WIDTH, origin / LevelGenerator.WIDTH, clock);
+            if (reacted && sourceKind[from] != ALERT) {
+                search.report(origin % LevelGenerator.WIDTH, origin / LevelGenerator.WIDTH, clock);
+                emit(tx, ty, ALERT_LOUDNESS, ALERT);
+            }
+        }
+    }
+
+    public void clear() {
+        pendingCount = 0;
+        tilesReached = 0;
+        nextGeneration();
+    }
+
+    // Remaining loudness at a tile after the last propagation, 0 if silent
+    public int getLoudness(int tx, int ty) {
+        if (!inBounds(tx, ty)) return 0;
+        int tile = ty * LevelGenerator.WIDTH + tx;
+        return stamp[tile] == generation ? loudness[tile] : 0;
+    }
+
+    public int getTilesReached() {
+        return tilesReached;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    private static boolean inBounds(int x, int y) {
+        return x >= 0 && x < LevelGenerator.WIDTH && y >= 0 && y < LevelGenerator.HEIGHT;
+    }
+}
@@ -0,0 +1,42 @@
+package Game;
+
+// A tile path owned by one guard and refilled in place by every search, so
+// re-planning does not allocate. Holds at most one entry per map tile.
+public class PathBuffer {
+    private static final int CAPACITY = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+
+    private final int[] xs = new int[CAPACITY];
+    private final int[] ys = new int[CAPACITY];
+    private int size = 0;
+    // Tiles expanded by the searches that filled this buffer since last taken
+    private int searchWork = 0;
+
+    public void clear() {
+        size = 0;
+    }
+
+    void setSize(int size) {
+        this.size = size;
+    }
+
+    void addSearchWork(int tiles) {
+        searchWork += tiles;
+    }
+
+    // Returns the work counted so far and starts counting again from zero
+    int takeSearchWork() {
+        int work = searchWork;
+        searchWork = 0;
+        return work;
+    }
+
+    void set(int index, int x, int y) {
+        xs[index] = x;
+        ys[index] = y;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int getX(int index) { return xs[index]; }
+    public int getY(int index) { return ys[index]; }
+}
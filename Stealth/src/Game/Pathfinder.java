@@ -1,113 +1,154 @@
 package Game;
 
-import java.util.*;
+import java.util.Arrays;
 
+// 4-directional A* over the tile map with unit step costs and a Manhattan
+// heuristic. All search state lives in flat arrays indexed by tile, reused from
+// search to search; a generation counter marks which entries belong to the
+// current search so nothing has to be cleared between calls. Each thread gets
+// its own scratch space, so separate worlds can plan concurrently.
 public class Pathfinder {
-    private static class Node implements Comparable<Node> {
-        int x, y;
-        double f, g, h;
-        Node parent;
-
-        Node(int x, int y) {
-            this.x = x;
-            this.y = y;
-        }
-
-        @Override
-        public int compareTo(Node other) {
-            return Double.compare(this.f, other.f);
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            Node node = (Node) obj;
-            return x == node.x && y == node.y;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(x, y);
-        }
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+    private static final int[] STEP_X = {-1, 1, 0, 0};
+    private static final int[] STEP_Y = {0, 0, -1, 1};
+
+    private static final ThreadLocal<Pathfinder> SCRATCH = ThreadLocal.withInitial(Pathfinder::new);
+
+    private final int[] cost = new int[TILE_COUNT];
+    private final int[] parent = new int[TILE_COUNT];
+    private final int[] seen = new int[TILE_COUNT];
+    private final int[] closed = new int[TILE_COUNT];
+    private int generation = 0;
+
+    // Binary min-heap of (f, tile); a tile is pushed again when its cost
+    // improves and stale entries are skipped when popped, so 4 pushes per tile
+    // is the most it can take
+    private final int[] heapF = new int[TILE_COUNT * 4];
+    private final int[] heapTile = new int[TILE_COUNT * 4];
+    private int heapSize = 0;
+
+    private Pathfinder() {
     }
 
-    public static List<int[]> findPath(LevelGenerator level, int startX, int startY, int targetX, int targetY) {
-        PriorityQueue<Node> openSet = new PriorityQueue<>();
-        Set<Node> closedSet = new HashSet<>();
-        Map<Node, Node> cameFrom = new HashMap<>();
-
-        Node startNode = new Node(startX, startY);
-        Node targetNode = new Node(targetX, targetY);
-
-        startNode.g = 0;
-        startNode.h = heuristic(startNode, targetNode);
-        startNode.f = startNode.g + startNode.h;
-        openSet.add(startNode);
-
-        while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
+    // Fills path with the tiles from start to target inclusive; leaves it empty
+    // when the target cannot be reached. The tiles expanded are added to the
+    // path's search work either way.
+    public static boolean findPath(LevelGenerator level, int startX, int startY,
+                                   int targetX, int targetY, PathBuffer path) {
+        return SCRATCH.get().search(level, startX, startY, targetX, targetY, path);
+    }
 
-            if (current.equals(targetNode)) {
-                return reconstructPath(cameFrom, current);
+    private boolean search(LevelGenerator level, int startX, int startY,
+                           int targetX, int targetY, PathBuffer path) {
+        path.clear();
+        if (!inBounds(startX, startY) || !inBounds(targetX, targetY)) return false;
+
+        nextGeneration();
+        int start = startY * LevelGenerator.WIDTH + startX;
+        int target = targetY * LevelGenerator.WIDTH + targetX;
+
+        seen[start] = generation;
+        cost[start] = 0;
+        parent[start] = -1;
+        heapSize = 0;
+        push(heuristic(startX, startY, targetX, targetY), start);
+
+        int expanded = 0;
+        while (heapSize > 0) {
+            int current = pop();
+            if (closed[current] == generation) continue;
+            if (current == target) {
+                reconstruct(target, path);
+                path.addSearchWork(expanded);
+                return true;
             }
-
-            closedSet.add(current);
-
-            for (Node neighbor : getNeighbors(level, current)) {
-                if (closedSet.contains(neighbor)) continue;
-
-                double tentativeG = current.g + 1; // Assuming each step costs 1
-
-                if (!openSet.contains(neighbor) || tentativeG < neighbor.g) {
-                    neighbor.parent = current;
-                    neighbor.g = tentativeG;
-                    neighbor.h = heuristic(neighbor, targetNode);
-                    neighbor.f = neighbor.g + neighbor.h;
-
-                    if (!openSet.contains(neighbor)) {
-                        openSet.add(neighbor);
-                    }
-                }
+            closed[current] = generation;
+            expanded++;
+
+            int cx = current % LevelGenerator.WIDTH;
+            int cy = current / LevelGenerator.WIDTH;
+            int nextCost = cost[current] + 1;
+
+            for (int i = 0; i < 4; i++) {
+                int nx = cx + STEP_X[i];
+                int ny = cy + STEP_Y[i];
+                if (!inBounds(nx, ny) || !level.isWalkable(nx, ny)) continue;
+
+                int neighbor = ny * LevelGenerator.WIDTH + nx;
+                if (closed[neighbor] == generation) continue;
+                if (seen[neighbor] == generation && cost[neighbor] <= nextCost) continue;
+
+                seen[neighbor] = generation;
+                cost[neighbor] = nextCost;
+                parent[neighbor] = current;
+                push(nextCost + heuristic(nx, ny, targetX, targetY), neighbor);
             }
         }
-
-        return Collections.emptyList(); // No path found
+        path.addSearchWork(expanded);
+        return false;
     }
 
-    private static List<int[]> reconstructPath(Map<Node, Node> cameFrom, Node current) {
-        List<int[]> path = new ArrayList<>();
-        path.add(new int[]{current.x, current.y});
-
-        while (cameFrom.containsKey(current)) {
-            current = cameFrom.get(current);
-            path.add(0, new int[]{current.x, current.y});
+    private void reconstruct(int target, PathBuffer path) {
+        int length = 0;
+        for (int tile = target; tile != -1; tile = parent[tile]) {
+            length++;
         }
 
-        return path;
+        path.setSize(length);
+        int index = length - 1;
+        for (int tile = target; tile != -1; tile = parent[tile]) {
+            path.set(index--, tile % LevelGenerator.WIDTH, tile / LevelGenerator.WIDTH);
+        }
     }
 
-    private static List<Node> getNeighbors(LevelGenerator level, Node node) {
-        List<Node> neighbors = new ArrayList<>();
-        int[] dx = {-1, 1, 0, 0}; // 4-directional movement
-        int[] dy = {0, 0, -1, 1};
+    private void nextGeneration() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Stamps from 2^31 searches ago could otherwise look current
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+    }
 
-        for (int i = 0; i < 4; i++) {
-            int nx = node.x + dx[i];
-            int ny = node.y + dy[i];
+    private void push(int f, int tile) {
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapF[up] <= f) break;
+            heapF[i] = heapF[up];
+            heapTile[i] = heapTile[up];
+            i = up;
+        }
+        heapF[i] = f;
+        heapTile[i] = tile;
+    }
 
-            if (nx >= 0 && nx < LevelGenerator.WIDTH && 
-                ny >= 0 && ny < LevelGenerator.HEIGHT && 
-                level.isWalkable(nx, ny)) {
-                neighbors.add(new Node(nx, ny));
-            }
+    private int pop() {
+        int top = heapTile[0];
+        int lastF = heapF[--heapSize];
+        int lastTile = heapTile[heapSize];
+
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapF[child + 1] < heapF[child]) child++;
+            if (heapF[child] >= lastF) break;
+            heapF[i] = heapF[child];
+            heapTile[i] = heapTile[child];
+            i = child;
         }
+        heapF[i] = lastF;
+        heapTile[i] = lastTile;
+        return top;
+    }
 
-        return neighbors;
+    private static boolean inBounds(int x, int y) {
+        return x >= 0 && x < LevelGenerator.WIDTH && y >= 0 && y < LevelGenerator.HEIGHT;
     }
 
-    private static double heuristic(Node a, Node b) {
-        // Manhattan distance
-        return Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
+    private static int heuristic(int x, int y, int targetX, int targetY) {
+        return Math.abs(x - targetX) + Math.abs(y - targetY);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package Game;
+
+// Fails (exit status 1) if patrolling guards stop walking their routes. Every
+// level is played headless with the player kept out of sight and earshot, and
+// each moving guard must get round its whole patrol loop, back to the waypoint
+// it started from, within the time limit.
+// Usage: PatrolCheck [levels] [seconds per level]
+public class PatrolCheck {
+    public static void main(String[] args) {
+        int levels = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 180;
+        int maxTicks = seconds * GameClock.TICKS_PER_SECOND;
+
+        int guards = 0;
+        int finished = 0;
+        int unrouted = 0;
+        for (long seed = 0; seed < levels; seed++) {
+            World world = new World("Sneaky", GameEvents.NONE, GameClock.simulated(), seed);
+            PatrolGraph patrols = world.getLevel().getPatrolGraph();
+
+            for (int tick = 0; tick < maxTicks && !allFinished(world, patrols); tick++) {
+                world.getPlayer().setPosition(-10 * LevelGenerator.TILE_SIZE, -10 * LevelGenerator.TILE_SIZE);
+                world.tick();
+            }
+
+            for (GuardVariant guard : world.getGuards()) {
+                if (guard.getType() != GuardVariant.GuardType.MOVING) continue;
+                guards++;
+                if (guard.getPatrolLoop() < 0) {
+                    unrouted++;
+                } else if (loopFinished(guard, patrols)) {
+                    finished++;
+                } else {
+                    System.err.printf("seed %d: guard stuck at (%.2f, %.2f) after %d of %d waypoints%n",
+                                      seed, guard.getX(), guard.getY(), guard.getWaypointsReached(),
+                                      patrols.getLoopSize(guard.getPatrolLoop()) + 1);
+                }
+            }
+        }
+
+        System.out.printf("%d of %d moving guards finished a patrol loop (%d levels without routes)%n",
+                          finished, guards, unrouted);
+        if (finished + unrouted < guards || finished == 0) {
+            System.err.println("FAIL: guards do not finish their patrol loops");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    // The first waypoint reached starts the loop; one more than the loop's size closes it
+    private static boolean loopFinished(GuardVariant guard, PatrolGraph patrols) {
+        return guard.getWaypointsReached() > patrols.getLoopSize(guard.getPatrolLoop());
+    }
+
+    private static boolean allFinished(World world, PatrolGraph patrols) {
+        for (GuardVariant guard : world.getGuards()) {
+            if (guard.getType() == GuardVariant.GuardType.MOVING && guard.getPatrolLoop() >= 0
+                && !loopFinished(guard, patrols)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
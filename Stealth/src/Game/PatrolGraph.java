@@ -0,0 +1,210 @@
+package Game;
+
+import java.util.Arrays;
+
+// Patrol routes for a level, built once when the level is generated. Waypoints
+// are spread over the walkable area by farthest-point sampling on walking
+// distance, chained into a short tour and cut into loops; the path for every
+// leg of every loop is found then and stored flat, so a patrolling guard only
+// copies its next leg instead of running A*. Runtime searches are left for
+// distractions, searches and walking back to a route.
+//
+// Waypoints are picked without drawing from the level's Random, so every seed
+// still produces the same map, guards and spawn as before.
+public class PatrolGraph {
+    static final int WAYPOINT_COUNT = 8;
+    static final int LOOP_SIZE = 4;
+
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    // Packed y * WIDTH + x; loop r is waypoints[loopStart[r] .. loopStart[r] + loopSize[r])
+    private final int[] waypoints;
+    private final int[] loopStart;
+    private final int[] loopSize;
+    private final int[] loopOf;
+
+    // Leg from waypoint i to the next one round its loop, first tile excluded
+    private final int[] legStart;
+    private final int[] legLength;
+    private final int[] legTiles;
+
+    private int nextLoop = 0;
+
+    public PatrolGraph(LevelGenerator level, int[] candidates, int candidateCount) {
+        int[] distance = new int[TILE_COUNT];
+        int[] queue = new int[TILE_COUNT];
+        int[] chosen = chooseWaypoints(level, candidates, candidateCount, distance, queue);
+
+        int[] tour = orderTour(level, chosen, distance, queue);
+        int loops = tour.length == 0 ? 0 : (tour.length + LOOP_SIZE - 1) / LOOP_SIZE;
+        // A loop of one waypoint has nowhere to go; fold it into the one before
+        if (loops > 1 && tour.length % LOOP_SIZE == 1) loops--;
+
+        waypoints = tour;
+        loopStart = new int[loops];
+        loopSize = new int[loops];
+        loopOf = new int[tour.length];
+        for (int r = 0; r < loops; r++) {
+            loopStart[r] = r * LOOP_SIZE;
+            loopSize[r] = r == loops - 1 ? tour.length - loopStart[r] : LOOP_SIZE;
+            Arrays.fill(loopOf, loopStart[r], loopStart[r] + loopSize[r], r);
+        }
+
+        legStart = new int[tour.length];
+        legLength = new int[tour.length];
+        PathBuffer path = new PathBuffer();
+        int[] tiles = new int[TILE_COUNT];
+        int used = 0;
+        for (int i = 0; i < tour.length; i++) {
+            int from = waypoints[i];
+            int to = waypoints[nextWaypoint(i)];
+            Pathfinder.findPath(level, from % LevelGenerator.WIDTH, from / LevelGenerator.WIDTH,
+                                to % LevelGenerator.WIDTH, to / LevelGenerator.WIDTH, path);
+            int length = Math.max(0, path.size() - 1);
+            if (used + length > tiles.length) {
+                tiles = Arrays.copyOf(tiles, Math.max(tiles.length * 2, used + length));
+            }
+            legStart[i] = used;
+            legLength[i] = length;
+            for (int p = 1; p < path.size(); p++) {
+                tiles[used++] = path.getY(p) * LevelGenerator.WIDTH + path.getX(p);
+            }
+        }
+        legTiles = Arrays.copyOf(tiles, used);
+    }
+
+    // Only candidates reachable from the exit count, so no route is stuck in a
+    // walled-off pocket. The first waypoint is the one nearest the middle of the
+    // map; each next one is the candidate farthest, on foot, from all so far.
+    private static int[] chooseWaypoints(LevelGenerator level, int[] candidates, int candidateCount,
+                                         int[] distance, int[] queue) {
+        Arrays.fill(distance, UNREACHED);
+        bfs(level, level.getExitY() * LevelGenerator.WIDTH + level.getExitX(), distance, queue);
+
+        int centre = (LevelGenerator.HEIGHT / 2) * LevelGenerator.WIDTH + LevelGenerator.WIDTH / 2;
+        int first = -1;
+        for (int i = 0; i < candidateCount; i++) {
+            if (distance[candidates[i]] == UNREACHED) continue;
+            if (first < 0 || manhattan(candidates[i], centre) < manhattan(first, centre)) first = candidates[i];
+        }
+        if (first < 0) return new int[0];
+
+        int[] chosen = new int[Math.min(WAYPOINT_COUNT, candidateCount)];
+        int count = 0;
+        chosen[count++] = first;
+        Arrays.fill(distance, UNREACHED);
+        while (count < chosen.length) {
+            // Distances only ever shrink as waypoints are added, so one BFS per
+            // new waypoint, relaxing into the running minimum, is enough
+            bfs(level, chosen[count - 1], distance, queue);
+
+            int best = -1;
+            for (int i = 0; i < candidateCount; i++) {
+                int d = distance[candidates[i]];
+                if (d != UNREACHED && d > 0 && (best < 0 || d > distance[best])) best = candidates[i];
+            }
+            if (best < 0) break;
+            chosen[count++] = best;
+        }
+        return Arrays.copyOf(chosen, count);
+    }
+
+    // Greedy nearest-neighbour tour on walking distance from the first waypoint,
+    // so consecutive waypoints, and therefore the waypoints of one loop, are close
+    private static int[] orderTour(LevelGenerator level, int[] chosen, int[] distance, int[] queue) {
+        int[] tour = new int[chosen.length];
+        boolean[] placed = new boolean[chosen.length];
+        for (int t = 0; t < chosen.length; t++) {
+            int current = t == 0 ? 0 : -1;
+            if (t > 0) {
+                Arrays.fill(distance, UNREACHED);
+                bfs(level, tour[t - 1], distance, queue);
+                for (int i = 0; i < chosen.length; i++) {
+                    if (placed[i]) continue;
+                    if (current < 0 || distance[chosen[i]] < distance[chosen[current]]) current = i;
+                }
+            }
+            placed[current] = true;
+            tour[t] = chosen[current];
+        }
+        return tour;
+    }
+
+    private static void bfs(LevelGenerator level, int start, int[] distance, int[] queue) {
+        int head = 0;
+        int tail = 0;
+        distance[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int tile = queue[head++];
+            int tx = tile % LevelGenerator.WIDTH;
+            int ty = tile / LevelGenerator.WIDTH;
+            int next = distance[tile] + 1;
+            tail = relax(level, tx - 1, ty, next, distance, queue, tail);
+            tail = relax(level, tx + 1, ty, next, distance, queue, tail);
+            tail = relax(level, tx, ty - 1, next, distance, queue, tail);
+            tail = relax(level, tx, ty + 1, next, distance, queue, tail);
+        }
+    }
+
+    private static int relax(LevelGenerator level, int tx, int ty, int d, int[] distance, int[] queue, int tail) {
+        if (!level.isWalkable(tx, ty)) return tail;
+        int tile = ty * LevelGenerator.WIDTH + tx;
+        if (distance[tile] <= d) return tail;
+        distance[tile] = d;
+        queue[tail] = tile;
+        return tail + 1;
+    }
+
+    private static int manhattan(int a, int b) {
+        return Math.abs(a % LevelGenerator.WIDTH - b % LevelGenerator.WIDTH)
+             + Math.abs(a / LevelGenerator.WIDTH - b / LevelGenerator.WIDTH);
+    }
+
+    // Loops are handed out in turn, so guards on one level spread over them
+    public int assignLoop() {
+        if (loopStart.length == 0) return -1;
+        int loop = nextLoop;
+        nextLoop = (nextLoop + 1) % loopStart.length;
+        return loop;
+    }
+
+    // Waypoint of the loop closest to the tile, as the crow flies
+    public int nearestWaypoint(int loop, int tileX, int tileY) {
+        int tile = tileY * LevelGenerator.WIDTH + tileX;
+        int best = loopStart[loop];
+        for (int i = best + 1; i < loopStart[loop] + loopSize[loop]; i++) {
+            if (manhattan(waypoints[i], tile) < manhattan(waypoints[best], tile)) best = i;
+        }
+        return best;
+    }
+
+    public int nextWaypoint(int waypoint) {
+        int loop = loopOf[waypoint];
+        int next = waypoint + 1;
+        return next == loopStart[loop] + loopSize[loop] ? loopStart[loop] : next;
+    }
+
+    // Fills path with the baked leg from the waypoint to the next one round
+    // its loop. Returns false if there is no way through, leaving path empty.
+    public boolean loadLeg(int waypoint, PathBuffer path) {
+        int length = legLength[waypoint];
+        path.setSize(length);
+        for (int i = 0; i < length; i++) {
+            int tile = legTiles[legStart[waypoint] + i];
+            path.set(i, tile % LevelGenerator.WIDTH, tile / LevelGenerator.WIDTH);
+        }
+        return length > 0;
+    }
+
+    // Every tile of every leg, packed, for callers weighing how busy a tile is
+    public int getLegTileCount() { return legTiles.length; }
+    public int getLegTile(int index) { return legTiles[index]; }
+
+    public int getLoopCount() { return loopStart.length; }
+    public int getLoopSize(int loop) { return loopSize[loop]; }
+    public int getWaypointCount() { return waypoints.length; }
+    public int getWaypointX(int waypoint) { return waypoints[waypoint] % LevelGenerator.WIDTH; }
+    public int getWaypointY(int waypoint) { return waypoints[waypoint] / LevelGenerator.WIDTH; }
+}
@@ -1,10 +1,22 @@
 package Game;
 
-import java.util.Map;
+// Moves axis-aligned boxes through the tile map. Implementations must not
+// allocate per call and must be safe to share between threads, since guards may
+// be updated in parallel; per-body results go into a caller-owned Contact.
+public interface PhysicsSystem {
+    // Sweeps the box at (x, y) by (dx, dy) and stops it flush against the first
+    // solid tile on each axis, X first, so the box slides along walls
+    void move(LevelGenerator level, double x, double y, double width, double height,
+              double dx, double dy, Contact contact);
 
-import javafx.scene.input.KeyCode;
+    boolean overlapsSolid(LevelGenerator level, double x, double y, double width, double height);
 
-public interface PhysicsSystem {
-    void update(Player player, LevelGenerator level);
-    void handleInput(Player player, Map<KeyCode, Boolean> keys, LevelGenerator level);
-}
\ No newline at end of file
+    // Outcome of one move, reused by its owner from tick to tick
+    class Contact {
+        public double x, y;
+        public boolean hitX, hitY;
+        // Tile type stopped against, or -1 when the move was unobstructed
+        public int tileX = -1;
+        public int tileY = -1;
+    }
+}
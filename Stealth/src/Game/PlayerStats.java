@@ -0,0 +1,45 @@
+package Game;
+
+// The player's effective stats after class and gear. Immutable: Player rebuilds
+// it on equipGear by folding every Gear.applyEffect over the class baseline, so
+// per-tick code reads plain fields however many modifiers are stacked.
+public final class PlayerStats {
+    public static final PlayerStats BASE = new PlayerStats(1.0, 1.0, 1000, 1.0);
+
+    private final double speedMultiplier;
+    // Applied to a guard's vision radius when it looks for the player
+    private final double detectionRadiusMultiplier;
+    private final long hideCooldownMs;
+    // Applied to how far footsteps carry; 0 is silent
+    private final double footstepMultiplier;
+
+    private PlayerStats(double speedMultiplier, double detectionRadiusMultiplier, long hideCooldownMs,
+                        double footstepMultiplier) {
+        this.speedMultiplier = speedMultiplier;
+        this.detectionRadiusMultiplier = detectionRadiusMultiplier;
+        this.hideCooldownMs = hideCooldownMs;
+        this.footstepMultiplier = footstepMultiplier;
+    }
+
+    public PlayerStats scaleSpeed(double factor) {
+        return new PlayerStats(speedMultiplier * factor, detectionRadiusMultiplier, hideCooldownMs, footstepMultiplier);
+    }
+
+    public PlayerStats scaleDetectionRadius(double factor) {
+        return new PlayerStats(speedMultiplier, detectionRadiusMultiplier * factor, hideCooldownMs, footstepMultiplier);
+    }
+
+    public PlayerStats scaleHideCooldown(double factor) {
+        return new PlayerStats(speedMultiplier, detectionRadiusMultiplier, Math.round(hideCooldownMs * factor),
+                               footstepMultiplier);
+    }
+
+    public PlayerStats scaleFootsteps(double factor) {
+        return new PlayerStats(speedMultiplier, detectionRadiusMultiplier, hideCooldownMs, footstepMultiplier * factor);
+    }
+
+    public double getSpeedMultiplier() { return speedMultiplier; }
+    public double getDetectionRadiusMultiplier() { return detectionRadiusMultiplier; }
+    public long getHideCooldownMs() { return hideCooldownMs; }
+    public double getFootstepMultiplier() { return footstepMultiplier; }
+}
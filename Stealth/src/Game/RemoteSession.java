@@ -0,0 +1,125 @@
+package Game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+// Stands in for SimulationLoop when the game is played on a GameServer. The
+// window keeps talking to a CommandQueue and drawing from a SnapshotBuffer; a
+// writer thread forwards the commands as INPUT frames and a reader thread turns
+// STATE deltas back into snapshots. Sound cues are not sent over the wire, so
+// remote games play without them.
+public class RemoteSession {
+    private static final long IDLE_NANOS = 1_000_000;
+
+    private final String host;
+    private final int port;
+    private final String classType;
+    private final CommandQueue commands;
+    private final SnapshotBuffer snapshots;
+
+    private Socket socket;
+    private volatile boolean running = true;
+    private int sessionId;
+    private long seed;
+
+    public RemoteSession(String host, int port, String classType, CommandQueue commands, SnapshotBuffer snapshots) {
+        this.host = host;
+        this.port = port;
+        this.classType = classType;
+        this.commands = commands;
+        this.snapshots = snapshots;
+    }
+
+    // "host:port" or "host" from -Dstealth.server, null when playing locally
+    public static RemoteSession fromProperty(String classType, CommandQueue commands, SnapshotBuffer snapshots) {
+        String server = System.getProperty("stealth.server");
+        if (server == null || server.isEmpty()) return null;
+
+        int colon = server.lastIndexOf(':');
+        String host = colon < 0 ? server : server.substring(0, colon);
+        int port = colon < 0 ? NetProtocol.DEFAULT_PORT : Integer.parseInt(server.substring(colon + 1));
+        return new RemoteSession(host, port, classType, commands, snapshots);
+    }
+
+    // Connects and waits for the WELCOME, then leaves the traffic to two threads
+    public void start() throws IOException {
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port), 5000);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        NetProtocol.writeHello(out, 0, classType);
+        out.flush();
+        ByteBuffer frame = ByteBuffer.allocate(NetProtocol.MAX_FRAME);
+        if (NetProtocol.readFrame(in, frame) != NetProtocol.WELCOME) {
+            socket.close();
+            throw new IOException("Server did not accept the session");
+        }
+        sessionId = frame.getInt();
+        seed = frame.getLong();
+
+        Thread reader = new Thread(() -> read(in, frame), "remote-reader");
+        Thread writer = new Thread(() -> write(out), "remote-writer");
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+        reader.start();
+        writer.start();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    private void read(DataInputStream in, ByteBuffer frame) {
+        SnapshotCodec codec = new SnapshotCodec();
+        try {
+            while (running) {
+                if (NetProtocol.readFrame(in, frame) != NetProtocol.STATE) continue;
+                codec.decode(frame, snapshots.back());
+                snapshots.publish();
+            }
+        } catch (IOException e) {
+            if (running) System.err.println("Lost connection to " + host + ":" + port + ": " + e.getMessage());
+        }
+    }
+
+    private void write(DataOutputStream out) {
+        try {
+            while (running) {
+                long command = commands.poll();
+                if (command == CommandQueue.EMPTY) {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                if (GameCommand.typeOf(command) == GameCommand.SAVE_RECORDING) {
+                    System.out.println("Recordings are not available for games on a server");
+                    continue;
+                }
+                do {
+                    NetProtocol.writeInput(out, command);
+                } while ((command = commands.poll()) != CommandQueue.EMPTY);
+                out.flush();
+            }
+            NetProtocol.writeBye(out);
+            out.flush();
+        } catch (IOException e) {
+            // The reader reports the lost connection
+        }
+    }
+
+    public int getSessionId() { return sessionId; }
+    public long getSeed() { return seed; }
+}
@@ -0,0 +1,58 @@
+package Game;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Replays a recording headless at full speed and prints a summary plus a
+// checksum of the final world state, for reproducing bug reports and comparing
+// detection or pathfinding changes run for run.
+// Usage: ReplayRunner <recording> [repeats]
+public class ReplayRunner {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayRunner <recording> [repeats]");
+            System.exit(1);
+        }
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        InputRecording recording;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(args[0]))) {
+            recording = InputRecording.readFrom(in);
+        }
+
+        System.out.printf("seed %d, class %s, %d ticks%n",
+                          recording.getSeed(), recording.getClassType(), recording.getTickCount());
+
+        for (int i = 0; i < repeats; i++) {
+            int[] counts = new int[2];
+            World world = recording.createWorld(new GameEvents() {
+                @Override
+                public void onSpotted() { counts[0]++; }
+
+                @Override
+                public void onLevelComplete() { counts[1]++; }
+            });
+
+            long start = System.nanoTime();
+            long ticks = recording.replay(world);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("replayed %d ticks in %.3f s (%.0f ticks/s): spotted %d, escaped %d, state %08x%n",
+                              ticks, seconds, ticks / seconds, counts[0], counts[1], stateChecksum(world));
+        }
+    }
+
+    static int stateChecksum(World world) {
+        int hash = Long.hashCode(world.getTickCount());
+        Player player = world.getPlayer();
+        hash = 31 * hash + Double.hashCode(player.getX());
+        hash = 31 * hash + Double.hashCode(player.getY());
+        for (GuardVariant guard : world.getGuards()) {
+            hash = 31 * hash + Double.hashCode(guard.getX());
+            hash = 31 * hash + Double.hashCode(guard.getY());
+        }
+        return hash;
+    }
+}
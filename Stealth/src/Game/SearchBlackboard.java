@@ -0,0 +1,177 @@
+package Game;
+
+import java.util.Arrays;
+import java.util.List;
+
+// What the guards on a level know together about where the player might be.
+// Hearing a footstep or a bomb reports the player's last known tile and starts
+// a search around it. Guards that are investigating mark the tiles around them
+// as searched every tick, and when one needs somewhere to go next it claims the
+// nearest frontier tile to the last known position that is neither recently
+// searched nor claimed by another guard. So guards fan out over different tiles
+// instead of each pathing to the same spot.
+//
+// Searched tiles cool off: a tile's heat falls linearly from 1 to 0 over
+// SEARCH_MEMORY_MS after it was last seen, and a cold tile is worth searching
+// again. Heat is derived from one timestamp per tile, so decay needs no
+// per-tick pass. Memory is fixed per tile and nothing allocates after construction.
+public class SearchBlackboard {
+    static final long SEARCH_DURATION_MS = 10000;
+    static final long SEARCH_MEMORY_MS = 8000;
+    // Tiles around an investigating guard that count as searched
+    static final int SEARCH_SIGHT = 2;
+    // How far from the last known tile the search spreads, in steps
+    static final int SEARCH_RADIUS = 10;
+
+    public static final int NONE = -1;
+
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+    private static final long NEVER = Long.MIN_VALUE / 2;
+
+    private int lastKnownTile = NONE;
+    private long lastKnownTime = NEVER;
+
+    private final long[] searchedAt = new long[TILE_COUNT];
+    private final boolean[] claimed = new boolean[TILE_COUNT];
+
+    // Frontier BFS, reused by every claim
+    private final int[] queue = new int[TILE_COUNT];
+    private final int[] depth = new int[TILE_COUNT];
+    private final int[] visited = new int[TILE_COUNT];
+    private int generation = 0;
+
+    private long claims = 0;
+
+    public SearchBlackboard() {
+        clear();
+    }
+
+    public void clear() {
+        lastKnownTile = NONE;
+        lastKnownTime = NEVER;
+        Arrays.fill(searchedAt, NEVER);
+        Arrays.fill(claimed, false);
+    }
+
+    public void report(int tileX, int tileY, GameClock clock) {
+        if (!inBounds(tileX, tileY)) return;
+        lastKnownTile = tileY * LevelGenerator.WIDTH + tileX;
+        lastKnownTime = clock.now();
+    }
+
+    public boolean isActive(GameClock clock) {
+        return lastKnownTile != NONE && clock.now() - lastKnownTime < SEARCH_DURATION_MS;
+    }
+
+    // Marks what the investigating guards can see as searched; run once per
+    // tick after the guards have moved, in list order
+    public void update(List<GuardVariant> guards, GameClock clock) {
+        if (!isActive(clock)) return;
+
+        long now = clock.now();
+        for (int i = 0; i < guards.size(); i++) {
+            GuardVariant guard = guards.get(i);
+            if (!guard.isInvestigating()) continue;
+
+            int tx = (int) ((guard.getX() + guard.getWidth() / 2) / LevelGenerator.TILE_SIZE);
+            int ty = (int) ((guard.getY() + guard.getHeight() / 2) / LevelGenerator.TILE_SIZE);
+            int minX = Math.max(0, tx - SEARCH_SIGHT);
+            int maxX = Math.min(LevelGenerator.WIDTH - 1, tx + SEARCH_SIGHT);
+            int minY = Math.max(0, ty - SEARCH_SIGHT);
+            int maxY = Math.min(LevelGenerator.HEIGHT - 1, ty + SEARCH_SIGHT);
+            for (int y = minY; y <= maxY; y++) {
+                int row = y * LevelGenerator.WIDTH;
+                for (int x = minX; x <= maxX; x++) {
+                    searchedAt[row + x] = now;
+                }
+            }
+        }
+    }
+
+    // Claims the unsearched, unclaimed tile nearest the last known position,
+    // walking outwards over open tiles. Returns the packed tile, or NONE when
+    // the search is over or everything within reach has been covered.
+    public int claimFrontier(LevelGenerator level, GameClock clock) {
+        if (!isActive(clock)) return NONE;
+
+        long now = clock.now();
+        nextGeneration();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = lastKnownTile;
+        visited[lastKnownTile] = generation;
+        depth[lastKnownTile] = 0;
+
+        while (head < tail) {
+            int tile = queue[head++];
+            if (!claimed[tile] && getHeat(tile, now) == 0) {
+                claimed[tile] = true;
+                claims++;
+                return tile;
+            }
+            if (depth[tile] == SEARCH_RADIUS) continue;
+
+            int tx = tile % LevelGenerator.WIDTH;
+            int ty = tile / LevelGenerator.WIDTH;
+            tail = enqueue(level, tx - 1, ty, depth[tile] + 1, tail);
+            tail = enqueue(level, tx + 1, ty, depth[tile] + 1, tail);
+            tail = enqueue(level, tx, ty - 1, depth[tile] + 1, tail);
+            tail = enqueue(level, tx, ty + 1, depth[tile] + 1, tail);
+        }
+        return NONE;
+    }
+
+    private int enqueue(LevelGenerator level, int tx, int ty, int d, int tail) {
+        if (!level.isWalkable(tx, ty)) return tail;
+
+        int tile = ty * LevelGenerator.WIDTH + tx;
+        if (visited[tile] == generation) return tail;
+        visited[tile] = generation;
+        depth[tile] = d;
+        queue[tail] = tile;
+        return tail + 1;
+    }
+
+    // Gives a claimed tile back. When the guard reached it, or could not, it
+    // is marked searched so nobody is sent there again straight away.
+    public void release(int tile, boolean searched, GameClock clock) {
+        if (tile == NONE) return;
+        claimed[tile] = false;
+        if (searched) searchedAt[tile] = clock.now();
+    }
+
+    // 1 for a tile searched this tick, falling to 0 once it is worth another look
+    public double getHeat(int tx, int ty, GameClock clock) {
+        if (!inBounds(tx, ty)) return 0;
+        return getHeat(ty * LevelGenerator.WIDTH + tx, clock.now());
+    }
+
+    private double getHeat(int tile, long now) {
+        long age = now - searchedAt[tile];
+        return age >= SEARCH_MEMORY_MS ? 0 : 1.0 - (double) age / SEARCH_MEMORY_MS;
+    }
+
+    public boolean isClaimed(int tx, int ty) {
+        return inBounds(tx, ty) && claimed[ty * LevelGenerator.WIDTH + tx];
+    }
+
+    public int getLastKnownTile() {
+        return lastKnownTile;
+    }
+
+    public long getClaims() {
+        return claims;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            generation = 1;
+        }
+    }
+
+    private static boolean inBounds(int x, int y) {
+        return x >= 0 && x < LevelGenerator.WIDTH && y >= 0 && y < LevelGenerator.HEIGHT;
+    }
+}
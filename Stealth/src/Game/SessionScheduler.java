@@ -0,0 +1,167 @@
+package Game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Ticks every GameSession at GameClock.TICKS_PER_SECOND on a few platform
+// threads. Each worker owns a tick wheel: the tick period is cut into SLOTS
+// equal phases and every session sits in one slot, so a worker wakes SLOTS
+// times per tick and steps only that slot's sessions. Load is spread over the
+// whole period instead of arriving as one burst per tick, which keeps frames
+// to clients evenly paced. New sessions go to the worker with fewest sessions
+// and there to its emptiest slot; closed sessions are dropped when next due.
+//
+// A worker that falls more than MAX_BEHIND_TICKS behind skips ahead instead of
+// replaying the backlog, as SimulationLoop does.
+public class SessionScheduler {
+    static final int SLOTS = 8;
+    static final int MAX_BEHIND_TICKS = 5;
+
+    private final Worker[] workers;
+
+    public SessionScheduler(int threads) {
+        workers = new Worker[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    public void start() {
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    public void stop() {
+        for (Worker worker : workers) {
+            worker.running = false;
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    public void add(GameSession session) {
+        Worker target = workers[0];
+        for (Worker worker : workers) {
+            if (worker.sessions.get() < target.sessions.get()) target = worker;
+        }
+        target.sessions.incrementAndGet();
+        target.incoming.add(session);
+    }
+
+    public int getSessionCount() {
+        int count = 0;
+        for (Worker worker : workers) count += worker.sessions.get();
+        return count;
+    }
+
+    // Totals since the last call: session ticks run, nanoseconds spent in
+    // them, the longest single wheel slot, and times a worker skipped ahead
+    public long[] drainStats() {
+        long ticks = 0, busy = 0, longest = 0, skips = 0;
+        for (Worker worker : workers) {
+            ticks += worker.ticks.getAndSet(0);
+            busy += worker.busyNanos.getAndSet(0);
+            longest = Math.max(longest, worker.longestSlotNanos.getAndSet(0));
+            skips += worker.skips.getAndSet(0);
+        }
+        return new long[] {ticks, busy, longest, skips};
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    private static final class Worker implements Runnable {
+        private final Thread thread;
+        private final ConcurrentLinkedQueue<GameSession> incoming = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger sessions = new AtomicInteger();
+        private final List<List<GameSession>> slots = new ArrayList<>(SLOTS);
+        private volatile boolean running = true;
+
+        private final AtomicLong ticks = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong longestSlotNanos = new AtomicLong();
+        private final AtomicLong skips = new AtomicLong();
+
+        Worker(int index) {
+            for (int i = 0; i < SLOTS; i++) {
+                slots.add(new ArrayList<>());
+            }
+            thread = new Thread(this, "session-worker-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long slotNanos = GameClock.TICK_NANOS / SLOTS;
+            long next = System.nanoTime();
+            int slot = 0;
+
+            while (running) {
+                long now = System.nanoTime();
+                if (now < next) {
+                    LockSupport.parkNanos(next - now);
+                    continue;
+                }
+
+                acceptIncoming();
+                long start = System.nanoTime();
+                int ran = tickSlot(slots.get(slot));
+                long spent = System.nanoTime() - start;
+
+                ticks.addAndGet(ran);
+                busyNanos.addAndGet(spent);
+                if (spent > longestSlotNanos.get()) longestSlotNanos.set(spent);
+
+                slot = (slot + 1) % SLOTS;
+                next += slotNanos;
+                if (System.nanoTime() - next > MAX_BEHIND_TICKS * GameClock.TICK_NANOS) {
+                    next = System.nanoTime();
+                    skips.incrementAndGet();
+                }
+            }
+
+            for (List<GameSession> list : slots) {
+                for (GameSession session : list) session.close();
+            }
+        }
+
+        private void acceptIncoming() {
+            GameSession session;
+            while ((session = incoming.poll()) != null) {
+                List<GameSession> emptiest = slots.get(0);
+                for (List<GameSession> list : slots) {
+                    if (list.size() < emptiest.size()) emptiest = list;
+                }
+                emptiest.add(session);
+            }
+        }
+
+        private int tickSlot(List<GameSession> list) {
+            int ran = 0;
+            for (int i = list.size() - 1; i >= 0; i--) {
+                GameSession session = list.get(i);
+                if (!session.isClosed()) {
+                    try {
+                        session.tick();
+                        ran++;
+                    } catch (RuntimeException e) {
+                        System.err.println("Session " + session.getId() + " failed: " + e);
+                        session.close();
+                    }
+                }
+                if (session.isClosed()) {
+                    // Swap-remove; order within a slot does not matter
+                    list.set(i, list.get(list.size() - 1));
+                    list.remove(list.size() - 1);
+                    sessions.decrementAndGet();
+                }
+            }
+            return ran;
+        }
+    }
+}
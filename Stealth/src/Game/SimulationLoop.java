@@ -0,0 +1,130 @@
+package Game;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs the World on its own thread at GameClock.TICKS_PER_SECOND. Commands from
+// the UI arrive through the CommandQueue and are applied between ticks; after
+// every batch of ticks the world is copied into the SnapshotBuffer for rendering.
+public class SimulationLoop implements Runnable {
+    private static final int MAX_TICKS_PER_FRAME = 5;
+    private static final Action[] ACTIONS = Action.values();
+
+    private final World world;
+    private final CommandQueue commands;
+    private final SnapshotBuffer snapshots;
+    private final InputState input = new InputState();
+    private final InputRecording recording;
+
+    private boolean paused = false;
+    private volatile boolean running = true;
+    private Thread thread;
+
+    public SimulationLoop(World world, CommandQueue commands, SnapshotBuffer snapshots) {
+        this.world = world;
+        this.commands = commands;
+        this.snapshots = snapshots;
+        this.recording = world.startRecording();
+    }
+
+    public void start() {
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        publish();
+        long nextTick = System.nanoTime();
+
+        while (running) {
+            long now = System.nanoTime();
+            if (now < nextTick) {
+                LockSupport.parkNanos(nextTick - now);
+                continue;
+            }
+
+            try {
+                int ticks = 0;
+                while (now >= nextTick && ticks < MAX_TICKS_PER_FRAME) {
+                    step();
+                    nextTick += GameClock.TICK_NANOS;
+                    ticks++;
+                }
+                // After a long hitch drop the backlog instead of fast-forwarding
+                if (now >= nextTick) {
+                    nextTick = now + GameClock.TICK_NANOS;
+                }
+                publish();
+            } catch (Exception e) {
+                System.err.println("Simulation error: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void step() {
+        drainCommands();
+        if (!paused) {
+            world.setInput(input.snapshot());
+            world.tick();
+        }
+    }
+
+    private void publish() {
+        snapshots.back().copyFrom(world, paused);
+        snapshots.publish();
+    }
+
+    private void drainCommands() {
+        long command;
+        while ((command = commands.poll()) != CommandQueue.EMPTY) {
+            int argument = GameCommand.argumentOf(command);
+            switch (GameCommand.typeOf(command)) {
+                case KEY_DOWN:
+                    input.press(ACTIONS[argument]);
+                    break;
+                case KEY_UP:
+                    input.release(ACTIONS[argument]);
+                    break;
+                case TOGGLE_PAUSE:
+                    paused = !paused;
+                    break;
+                case PAUSE:
+                    paused = true;
+                    break;
+                case RESUME:
+                    paused = false;
+                    break;
+                case RESTART:
+                    if (world.isSpotted()) world.resetLevel();
+                    break;
+                case NEXT_LEVEL:
+                    if (world.isLevelComplete()) world.nextLevel();
+                    break;
+                case SAVE_RECORDING:
+                    saveRecording();
+                    break;
+            }
+        }
+    }
+
+    private void saveRecording() {
+        String fileName = "stealth-" + System.currentTimeMillis() + ".replay";
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+            recording.writeTo(out);
+            System.out.println("Saved recording to " + fileName);
+        } catch (IOException e) {
+            System.err.println("Failed to save recording: " + e.getMessage());
+        }
+    }
+}
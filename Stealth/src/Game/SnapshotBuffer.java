@@ -0,0 +1,39 @@
+package Game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Triple buffer between the simulation (writer) and the FX thread (reader). The
+// writer always has a private back buffer to fill, the reader always has a
+// private front buffer to draw, and the middle slot is swapped atomically, so
+// neither side ever waits for the other or sees a half-written snapshot.
+public class SnapshotBuffer {
+    private static final int FRESH = 4;
+
+    private final WorldSnapshot[] snapshots = {
+        new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()
+    };
+
+    // Index of the middle slot, with FRESH set when it holds an unread snapshot
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+    private boolean published = false;
+
+    // Writer side: the snapshot to fill for the next publish
+    public WorldSnapshot back() {
+        return snapshots[back];
+    }
+
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & ~FRESH;
+    }
+
+    // Reader side: the newest published snapshot, or null if none has been published yet
+    public WorldSnapshot latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & ~FRESH;
+            published = true;
+        }
+        return published ? snapshots[front] : null;
+    }
+}
@@ -0,0 +1,220 @@
+package Game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Delta encoding of WorldSnapshots for the network. Both ends keep a mirror of
+// the last state that went over the wire, quantised to what the wire carries;
+// the server sends only what differs from its mirror and the client applies it
+// to its own, so the two stay equal as long as every STATE frame arrives in
+// order (TCP sees to that). Mirrors start zeroed, so the first frame is simply
+// the delta from an empty map and carries everything.
+//
+// STATE payload:
+//   i32 tick, i32 last SYNC applied, u8 flags, u8 hide cooldown (0..255),
+//   u8 cherry bombs, u8 max cherry bombs,
+//   three grids (tiles, bomb strength, danger), each u16 n + n * (u16 tile, u8 value),
+//   u16 sprite count, u16 n + n * (u16 index, u8 sprite | moving << 7,
+//   i16 x, i16 y, u8 width, u8 height, u16 vision radius)
+public class SnapshotCodec {
+    static final int MAX_SPRITES = 4096;
+
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+    private static final int MOVING = 0x80;
+
+    private static final int SPOTTED = 1;
+    private static final int LEVEL_COMPLETE = 1 << 1;
+    private static final int AT_EXIT = 1 << 2;
+    private static final int PAUSED = 1 << 3;
+    private static final int HIDDEN = 1 << 4;
+    private static final int NEAR_HIDEABLE = 1 << 5;
+    private static final int IN_COOLDOWN = 1 << 6;
+
+    private final byte[] tiles = new byte[TILE_COUNT];
+    private final byte[] bombs = new byte[TILE_COUNT];
+    private final byte[] danger = new byte[TILE_COUNT];
+
+    private int spriteCount = 0;
+    private short[] spriteX = new short[0];
+    private short[] spriteY = new short[0];
+    private short[] prevX = new short[0];
+    private short[] prevY = new short[0];
+    private byte[] sprite = new byte[0];
+    private byte[] spriteW = new byte[0];
+    private byte[] spriteH = new byte[0];
+    private short[] vision = new short[0];
+
+    // Server side: appends the delta from the mirror to the snapshot and
+    // brings the mirror up to date. out needs room for a full frame.
+    public void encode(WorldSnapshot snapshot, int ack, ByteBuffer out) {
+        out.putInt((int) snapshot.tick);
+        out.putInt(ack);
+        int flags = (snapshot.spotted ? SPOTTED : 0) | (snapshot.levelComplete ? LEVEL_COMPLETE : 0)
+                  | (snapshot.atExit ? AT_EXIT : 0) | (snapshot.paused ? PAUSED : 0)
+                  | (snapshot.playerHidden ? HIDDEN : 0) | (snapshot.playerNearHideable ? NEAR_HIDEABLE : 0)
+                  | (snapshot.playerInCooldown ? IN_COOLDOWN : 0);
+        out.put((byte) flags);
+        out.put(unit(snapshot.cooldownProgress));
+        out.put((byte) snapshot.cherryBombs);
+        out.put((byte) snapshot.maxCherryBombs);
+
+        int start = out.position();
+        out.putShort((short) 0);
+        int n = 0;
+        for (int i = 0; i < TILE_COUNT; i++) {
+            n += putIfChanged(tiles, i, (byte) snapshot.tiles[i], out);
+        }
+        out.putShort(start, (short) n);
+
+        start = out.position();
+        out.putShort((short) 0);
+        n = 0;
+        for (int i = 0; i < TILE_COUNT; i++) {
+            n += putIfChanged(bombs, i, snapshot.anyBombs ? unit(snapshot.bombStrength[i]) : 0, out);
+        }
+        out.putShort(start, (short) n);
+
+        start = out.position();
+        out.putShort((short) 0);
+        n = 0;
+        for (int i = 0; i < TILE_COUNT; i++) {
+            n += putIfChanged(danger, i, unit(snapshot.danger[i]), out);
+        }
+        out.putShort(start, (short) n);
+
+        int count = Math.min(snapshot.spriteCount, MAX_SPRITES);
+        ensureCapacity(count);
+        out.putShort((short) count);
+        start = out.position();
+        out.putShort((short) 0);
+        n = 0;
+        for (int i = 0; i < count; i++) {
+            short x = (short) Math.round(snapshot.x[i]);
+            short y = (short) Math.round(snapshot.y[i]);
+            byte s = (byte) (snapshot.sprite[i] | (snapshot.moving[i] ? MOVING : 0));
+            byte w = (byte) Math.round(snapshot.width[i]);
+            byte h = (byte) Math.round(snapshot.height[i]);
+            short v = (short) Math.round(snapshot.visionRadius[i]);
+            if (i < spriteCount && x == spriteX[i] && y == spriteY[i] && s == sprite[i]
+                && w == spriteW[i] && h == spriteH[i] && v == vision[i]) {
+                continue;
+            }
+            spriteX[i] = x;
+            spriteY[i] = y;
+            sprite[i] = s;
+            spriteW[i] = w;
+            spriteH[i] = h;
+            vision[i] = v;
+            out.putShort((short) i).put(s).putShort(x).putShort(y).put(w).put(h).putShort(v);
+            n++;
+        }
+        out.putShort(start, (short) n);
+        spriteCount = count;
+    }
+
+    // Largest payload encode can produce, for sizing buffers
+    public static int maxEncodedSize() {
+        return 4 + 4 + 4 + 3 * (2 + TILE_COUNT * 3) + 2 + 2 + MAX_SPRITES * 11;
+    }
+
+    // Client side: applies a delta to the mirror and writes the whole mirrored
+    // state into the snapshot. Sprites keep where they were before this delta
+    // as their previous position, so the renderer interpolates between frames.
+    public int decode(ByteBuffer in, WorldSnapshot snapshot) {
+        snapshot.tick = in.getInt() & 0xFFFFFFFFL;
+        int ack = in.getInt();
+        int flags = in.get() & 0xFF;
+        snapshot.spotted = (flags & SPOTTED) != 0;
+        snapshot.levelComplete = (flags & LEVEL_COMPLETE) != 0;
+        snapshot.atExit = (flags & AT_EXIT) != 0;
+        snapshot.paused = (flags & PAUSED) != 0;
+        snapshot.playerHidden = (flags & HIDDEN) != 0;
+        snapshot.playerNearHideable = (flags & NEAR_HIDEABLE) != 0;
+        snapshot.playerInCooldown = (flags & IN_COOLDOWN) != 0;
+        snapshot.cooldownProgress = (in.get() & 0xFF) / 255.0;
+        snapshot.cherryBombs = in.get() & 0xFF;
+        snapshot.maxCherryBombs = in.get() & 0xFF;
+
+        applyGrid(in, tiles);
+        applyGrid(in, bombs);
+        applyGrid(in, danger);
+
+        int count = in.getShort() & 0xFFFF;
+        ensureCapacity(count);
+        System.arraycopy(spriteX, 0, prevX, 0, spriteCount);
+        System.arraycopy(spriteY, 0, prevY, 0, spriteCount);
+        int n = in.getShort() & 0xFFFF;
+        for (int k = 0; k < n; k++) {
+            int i = in.getShort() & 0xFFFF;
+            sprite[i] = in.get();
+            spriteX[i] = in.getShort();
+            spriteY[i] = in.getShort();
+            spriteW[i] = in.get();
+            spriteH[i] = in.get();
+            vision[i] = in.getShort();
+            if (i >= spriteCount) {
+                prevX[i] = spriteX[i];
+                prevY[i] = spriteY[i];
+            }
+        }
+        spriteCount = count;
+
+        boolean anyBombs = false;
+        for (int i = 0; i < TILE_COUNT; i++) {
+            snapshot.tiles[i] = tiles[i];
+            snapshot.bombStrength[i] = (bombs[i] & 0xFF) / 255f;
+            snapshot.danger[i] = (danger[i] & 0xFF) / 255f;
+            anyBombs |= bombs[i] != 0;
+        }
+        snapshot.anyBombs = anyBombs;
+
+        snapshot.ensureSpriteCapacity(count);
+        snapshot.spriteCount = count;
+        for (int i = 0; i < count; i++) {
+            snapshot.prevX[i] = prevX[i];
+            snapshot.prevY[i] = prevY[i];
+            snapshot.x[i] = spriteX[i];
+            snapshot.y[i] = spriteY[i];
+            snapshot.width[i] = spriteW[i] & 0xFF;
+            snapshot.height[i] = spriteH[i] & 0xFF;
+            snapshot.visionRadius[i] = vision[i] & 0xFFFF;
+            snapshot.sprite[i] = (byte) (sprite[i] & ~MOVING);
+            snapshot.moving[i] = (sprite[i] & MOVING) != 0;
+        }
+        snapshot.publishNanos = System.nanoTime();
+        return ack;
+    }
+
+    private static int putIfChanged(byte[] mirror, int i, byte value, ByteBuffer out) {
+        if (mirror[i] == value) return 0;
+        mirror[i] = value;
+        out.putShort((short) i).put(value);
+        return 1;
+    }
+
+    private static void applyGrid(ByteBuffer in, byte[] mirror) {
+        int n = in.getShort() & 0xFFFF;
+        for (int k = 0; k < n; k++) {
+            int i = in.getShort() & 0xFFFF;
+            mirror[i] = in.get();
+        }
+    }
+
+    private static byte unit(double value) {
+        return (byte) Math.round(Math.max(0, Math.min(1, value)) * 255);
+    }
+
+    private void ensureCapacity(int count) {
+        if (spriteX.length >= count) return;
+
+        int capacity = Math.max(count, spriteX.length * 2);
+        spriteX = Arrays.copyOf(spriteX, capacity);
+        spriteY = Arrays.copyOf(spriteY, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+        spriteW = Arrays.copyOf(spriteW, capacity);
+        spriteH = Arrays.copyOf(spriteH, capacity);
+        vision = Arrays.copyOf(vision, capacity);
+    }
+}
@@ -0,0 +1,35 @@
+package Game;
+
+import javafx.application.Platform;
+
+// Plays the game's sound effects for simulation events. Events fire on the
+// simulation thread, so playback is handed over to the FX thread.
+public class SoundEvents implements GameEvents {
+    @Override
+    public void onHide() {
+        Platform.runLater(SoundManager::playHideSound);
+    }
+
+    @Override
+    public void onUnhide() {
+        Platform.runLater(SoundManager::playUnhideSound);
+    }
+
+    @Override
+    public void onSpotted() {
+        Platform.runLater(SoundManager::playAlert);
+    }
+
+    @Override
+    public void onLevelComplete() {
+        Platform.runLater(() -> {
+            SoundManager.stopBGM();
+            SoundManager.playAlert();
+        });
+    }
+
+    @Override
+    public void onLevelStart() {
+        Platform.runLater(SoundManager::playBGM);
+    }
+}
@@ -0,0 +1,54 @@
+package Game;
+
+// Fails (exit status 1) if a patrolling guard cannot spot the player, which
+// would leave every DifficultyEvaluator rating at 0% detection. On each level
+// the player stands still on the second waypoint the moving guard will walk
+// to, and the run is played through DifficultyEvaluator.play; the guard walks
+// its leg straight at the player, so every such run should end SPOTTED.
+// Usage: SpottedCheck [levels]
+public class SpottedCheck {
+    public static void main(String[] args) {
+        int levels = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        int spotted = 0;
+        int routed = 0;
+        long[] ticks = new long[1];
+        for (long seed = 0; seed < levels; seed++) {
+            World world = new World("Sneaky", GameEvents.NONE, GameClock.simulated(), seed);
+            PatrolGraph patrols = world.getLevel().getPatrolGraph();
+
+            GuardVariant patroller = null;
+            for (GuardVariant guard : world.getGuards()) {
+                if (guard.getType() == GuardVariant.GuardType.MOVING && guard.getPatrolLoop() >= 0) {
+                    patroller = guard;
+                    break;
+                }
+            }
+            if (patroller == null) continue;
+            routed++;
+
+            // The guard first heads for the nearest waypoint of its loop, then
+            // walks the leg on to the next one
+            int first = patrols.nearestWaypoint(patroller.getPatrolLoop(),
+                                                (int) (patroller.getX() / LevelGenerator.TILE_SIZE),
+                                                (int) (patroller.getY() / LevelGenerator.TILE_SIZE));
+            int waypoint = patrols.nextWaypoint(first);
+            world.getPlayer().setPosition(patrols.getWaypointX(waypoint) * LevelGenerator.TILE_SIZE,
+                                          patrols.getWaypointY(waypoint) * LevelGenerator.TILE_SIZE);
+
+            if (DifficultyEvaluator.play(world, null, ticks) == DifficultyEvaluator.SPOTTED) {
+                spotted++;
+            } else {
+                System.err.printf("seed %d: player on waypoint (%d, %d) never spotted%n", seed,
+                                  patrols.getWaypointX(waypoint), patrols.getWaypointY(waypoint));
+            }
+        }
+
+        System.out.printf("%d of %d levels with a patrol route spotted the player%n", spotted, routed);
+        if (spotted < routed || spotted == 0) {
+            System.err.println("FAIL: patrolling guards do not spot the player");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+}
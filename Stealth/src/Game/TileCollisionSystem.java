@@ -0,0 +1,133 @@
+package Game;
+
+// Swept AABB against the tile grid. Each axis is swept separately: only the
+// columns (or rows) between the box's leading edge and its destination are
+// examined, and on a hit the box is placed exactly on the tile face. A box covers
+// the tiles floor(x / T) .. ceil((x + w) / T) - 1, so a box touching a wall does
+// not count as overlapping it.
+public class TileCollisionSystem implements PhysicsSystem {
+    private static final double T = LevelGenerator.TILE_SIZE;
+
+    // Anything that is not walkable ground stops a body. Outside the map
+    // getTile reports WALL.
+    public static boolean isSolid(int tile) {
+        return !LevelGenerator.isWalkableTile(tile);
+    }
+
+    @Override
+    public void move(LevelGenerator level, double x, double y, double width, double height,
+                     double dx, double dy, Contact contact) {
+        contact.hitX = false;
+        contact.hitY = false;
+        contact.tileX = -1;
+        contact.tileY = -1;
+
+        if (dx != 0) {
+            x = sweepX(level, x, y, width, height, dx, contact);
+        }
+        if (dy != 0) {
+            y = sweepY(level, x, y, width, height, dy, contact);
+        }
+        contact.x = x;
+        contact.y = y;
+    }
+
+    private double sweepX(LevelGenerator level, double x, double y, double width, double height,
+                          double dx, Contact contact) {
+        int firstRow = firstTile(y);
+        int lastRow = lastTile(y + height);
+
+        if (dx > 0) {
+            int from = lastTile(x + width) + 1;
+            int to = lastTile(x + width + dx);
+            for (int col = from; col <= to; col++) {
+                int tile = solidInColumn(level, col, firstRow, lastRow);
+                if (tile >= 0) {
+                    contact.hitX = true;
+                    contact.tileX = tile;
+                    return col * T - width;
+                }
+            }
+        } else {
+            int from = firstTile(x) - 1;
+            int to = firstTile(x + dx);
+            for (int col = from; col >= to; col--) {
+                int tile = solidInColumn(level, col, firstRow, lastRow);
+                if (tile >= 0) {
+                    contact.hitX = true;
+                    contact.tileX = tile;
+                    return (col + 1) * T;
+                }
+            }
+        }
+        return x + dx;
+    }
+
+    private double sweepY(LevelGenerator level, double x, double y, double width, double height,
+                          double dy, Contact contact) {
+        int firstCol = firstTile(x);
+        int lastCol = lastTile(x + width);
+
+        if (dy > 0) {
+            int from = lastTile(y + height) + 1;
+            int to = lastTile(y + height + dy);
+            for (int row = from; row <= to; row++) {
+                int tile = solidInRow(level, row, firstCol, lastCol);
+                if (tile >= 0) {
+                    contact.hitY = true;
+                    contact.tileY = tile;
+                    return row * T - height;
+                }
+            }
+        } else {
+            int from = firstTile(y) - 1;
+            int to = firstTile(y + dy);
+            for (int row = from; row >= to; row--) {
+                int tile = solidInRow(level, row, firstCol, lastCol);
+                if (tile >= 0) {
+                    contact.hitY = true;
+                    contact.tileY = tile;
+                    return (row + 1) * T;
+                }
+            }
+        }
+        return y + dy;
+    }
+
+    // Type of the first solid tile in the column span, or -1 if all are passable
+    private static int solidInColumn(LevelGenerator level, int col, int firstRow, int lastRow) {
+        for (int row = firstRow; row <= lastRow; row++) {
+            int tile = level.getTile(col, row);
+            if (isSolid(tile)) return tile;
+        }
+        return -1;
+    }
+
+    private static int solidInRow(LevelGenerator level, int row, int firstCol, int lastCol) {
+        for (int col = firstCol; col <= lastCol; col++) {
+            int tile = level.getTile(col, row);
+            if (isSolid(tile)) return tile;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean overlapsSolid(LevelGenerator level, double x, double y, double width, double height) {
+        int lastRow = lastTile(y + height);
+        int lastCol = lastTile(x + width);
+        for (int row = firstTile(y); row <= lastRow; row++) {
+            for (int col = firstTile(x); col <= lastCol; col++) {
+                if (isSolid(level.getTile(col, row))) return true;
+            }
+        }
+        return false;
+    }
+
+    private static int firstTile(double start) {
+        return (int) Math.floor(start / T);
+    }
+
+    private static int lastTile(double end) {
+        return (int) Math.ceil(end / T) - 1;
+    }
+}
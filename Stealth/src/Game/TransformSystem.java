@@ -0,0 +1,27 @@
+package Game;
+
+// Copies the player into its entity row after it has moved, and derives each
+// row's velocity from this tick's and last tick's position. Guards move, turn
+// and change vision in their own rows, so only the player needs copying;
+// everything downstream (detection, snapshots, rendering) reads the EntityStore.
+public class TransformSystem {
+    public static void syncPlayer(EntityStore entities, int id, Player player) {
+        int row = entities.rowOf(id);
+        entities.prevX[row] = player.getDrawX(0);
+        entities.prevY[row] = player.getDrawY(0);
+        entities.x[row] = player.getDrawX(1);
+        entities.y[row] = player.getDrawY(1);
+        entities.sprite[row] = player.isHidden() ? EntityStore.SPRITE_NONE : EntityStore.SPRITE_PLAYER;
+    }
+
+    public static void updateVelocities(EntityStore entities) {
+        for (int row = 0; row < entities.size(); row++) {
+            if (!entities.has(row, EntityStore.VELOCITY)) continue;
+            entities.velX[row] = entities.x[row] - entities.prevX[row];
+            entities.velY[row] = entities.y[row] - entities.prevY[row];
+        }
+    }
+
+    private TransformSystem() {
+    }
+}
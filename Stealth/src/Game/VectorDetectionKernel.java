@@ -0,0 +1,44 @@
+package Game;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// DetectionPrefilter's radius and cone pass on the incubating Vector API: one
+// comparison covers a full vector of guards (4 doubles with AVX2, 8 with
+// AVX-512), and the survivors are read off the lane mask. Doubles rather than
+// floats, so every lane matches the scalar kernel exactly and no guard that
+// could see the player is ever dropped. Needs --add-modules
+// jdk.incubator.vector to compile and run; DetectionPrefilter only loads it
+// when the module is there.
+class VectorDetectionKernel implements DetectionPrefilter.Kernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public int filter(double playerX, double playerY, double[] centerX, double[] centerY,
+                      double[] facingX, double[] facingY, double[] radiusSq, int count, int[] candidates) {
+        DoubleVector px = DoubleVector.broadcast(SPECIES, playerX);
+        DoubleVector py = DoubleVector.broadcast(SPECIES, playerY);
+
+        int survivors = 0;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+            DoubleVector dx = px.sub(DoubleVector.fromArray(SPECIES, centerX, i));
+            DoubleVector dy = py.sub(DoubleVector.fromArray(SPECIES, centerY, i));
+            DoubleVector distanceSq = dx.mul(dx).add(dy.mul(dy));
+            DoubleVector dot = dx.mul(DoubleVector.fromArray(SPECIES, facingX, i))
+                                 .add(dy.mul(DoubleVector.fromArray(SPECIES, facingY, i)));
+
+            VectorMask<Double> pass = distanceSq.compare(VectorOperators.LE, DoubleVector.fromArray(SPECIES, radiusSq, i))
+                .and(dot.compare(VectorOperators.GE, 0))
+                .and(dot.mul(dot).compare(VectorOperators.GE, distanceSq.mul(DetectionPrefilter.COS_HALF_FOV_SQ)));
+
+            for (long bits = pass.toLong(); bits != 0; bits &= bits - 1) {
+                candidates[survivors++] = i + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return DetectionPrefilter.filterRange(playerX, playerY, centerX, centerY, facingX, facingY, radiusSq,
+                                              candidates, i, count, survivors);
+    }
+}
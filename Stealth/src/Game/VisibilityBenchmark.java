@@ -0,0 +1,64 @@
+package Game;
+
+import java.util.List;
+import java.util.Random;
+
+// Cost per guard of the detection test and the graded visibility score,
+// headless. The player is placed near a random guard each pass so most tests
+// get past the range and cone checks to the line-of-sight samples. The first
+// round of each mode starts from an empty sight cache; later rounds reuse it.
+// Usage: VisibilityBenchmark [guards] [passes per round] [rounds]
+public class VisibilityBenchmark {
+    public static void main(String[] args) {
+        int guardCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        World world = new World("Sneaky", GameEvents.NONE, GameClock.simulated(), 1);
+        world.addGuards(guardCount - world.getGuards().size());
+        // Let guards spread out along their routes and pick up facings
+        for (int t = 0; t < 600; t++) {
+            world.getPlayer().setPosition(-10 * LevelGenerator.TILE_SIZE, -10 * LevelGenerator.TILE_SIZE);
+            world.tick();
+        }
+
+        List<GuardVariant> guards = world.getGuards();
+        Player player = world.getPlayer();
+        CherryBombLayer bombs = world.getCherryBombLayer();
+        LineOfSightCache sight = world.getLevel().getSightCache();
+
+        // Precomputed player positions so the loop measures only the tests
+        Random random = new Random(2);
+        int samples = 1024;
+        double[] playerX = new double[samples];
+        double[] playerY = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            GuardVariant near = guards.get(random.nextInt(guards.size()));
+            playerX[i] = near.getX() + (random.nextDouble() * 2 - 1) * 4 * LevelGenerator.TILE_SIZE;
+            playerY[i] = near.getY() + (random.nextDouble() * 2 - 1) * 4 * LevelGenerator.TILE_SIZE;
+        }
+
+        for (int mode = 0; mode < 2; mode++) {
+            boolean score = mode == 1;
+            sight.invalidate();
+            for (int round = 0; round < rounds; round++) {
+                long traces = sight.getTraces();
+                double sink = 0;
+                long start = System.nanoTime();
+                for (int p = 0; p < passes; p++) {
+                    int i = p & (samples - 1);
+                    player.setPosition(playerX[i], playerY[i]);
+                    for (int g = 0; g < guards.size(); g++) {
+                        GuardVariant guard = guards.get(g);
+                        sink += score ? guard.getVisibilityScore(player, bombs) : (guard.canSee(player, bombs) ? 1 : 0);
+                    }
+                }
+                long elapsed = System.nanoTime() - start;
+                long tests = (long) passes * guards.size();
+                System.out.printf("%s round %d: %.1f ns per guard, %.0f us per %d-guard tick, %d rays traced (checksum %.1f)%n",
+                                  score ? "score " : "canSee", round + 1, (double) elapsed / tests,
+                                  elapsed / 1e3 / passes, guards.size(), sight.getTraces() - traces, sink);
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package Game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Complete game state and the per-tick rules: level, player, guards and cherry
+// bombs. Nothing in here touches JavaFX, so a World can be ticked headless; the
+// window draws it through WorldRenderer and hears about it through GameEvents.
+public class World {
+    private LevelGenerator level;
+    private Player player;
+    private final List<GuardVariant> guards = new ArrayList<>();
+    private final CherryBombLayer cherryBombLayer = new CherryBombLayer();
+    // Bound once; a method reference in tick() would allocate every tick
+    private final LifetimeSystem.ExpiryListener bombExpired = cherryBombLayer::remove;
+    private final EntityStore entities = new EntityStore();
+    private int playerEntity;
+    private final DetectionCache detectionCache = new DetectionCache();
+    private final GuardUpdater guardUpdater = new GuardUpdater();
+    private final AIScheduler aiScheduler = new AIScheduler();
+    private final NoiseSystem noise = new NoiseSystem();
+    private final SearchBlackboard search = new SearchBlackboard();
+    private final InfluenceMap influence = new InfluenceMap(cherryBombLayer);
+
+    private final String classType;
+    private final GameEvents events;
+    private final GameClock clock;
+    private final long seed;
+    private final Random levelSeeds;
+    private InputSnapshot input = InputSnapshot.NONE;
+    private InputRecording recording;
+
+    private boolean levelComplete = false;
+    private boolean spotted = false;
+    private long tickCount = 0;
+
+    private int[][] initialLevelState;
+    private double initialPlayerX, initialPlayerY;
+    private double[] initialGuardX = new double[0];
+    private double[] initialGuardY = new double[0];
+
+    public World(String classType, GameEvents events) {
+        this(classType, events, GameClock.realTime());
+    }
+
+    public World(String classType, GameEvents events, GameClock clock) {
+        this(classType, events, clock, new Random().nextLong());
+    }
+
+    // The same seed, class and inputs always produce the same run on a simulated clock
+    public World(String classType, GameEvents events, GameClock clock, long seed) {
+        this.classType = classType;
+        this.events = events;
+        this.clock = clock;
+        this.seed = seed;
+        this.levelSeeds = new Random(seed);
+        generateLevel();
+    }
+
+    public void nextLevel() {
+        if (recording != null) recording.recordCommand(InputRecording.NEXT_LEVEL);
+        generateLevel();
+        events.onLevelStart();
+    }
+
+    private void generateLevel() {
+        level = new LevelGenerator(levelSeeds.nextLong());
+
+        initialLevelState = new int[LevelGenerator.WIDTH][LevelGenerator.HEIGHT];
+        for (int x = 0; x < LevelGenerator.WIDTH; x++) {
+            for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
+                initialLevelState[x][y] = level.getTile(x, y);
+            }
+        }
+
+        int[] standingGuardPos = level.getRandomFloorPosition();
+        int[] movingGuardPos = level.getRandomFloorPosition();
+        List<int[]> guardPositions = Arrays.asList(standingGuardPos, movingGuardPos);
+
+        int[] playerPos = level.getValidPlayerSpawn(guardPositions);
+
+        if (player == null) {
+            player = new Player(level);
+            player.setClassType(classType);
+            player.setEvents(events);
+        }
+        player.setPosition(playerPos[0] * LevelGenerator.TILE_SIZE,
+                           playerPos[1] * LevelGenerator.TILE_SIZE);
+
+        // Bombs belong to the map they were thrown on
+        entities.clear();
+        cherryBombLayer.clear();
+        playerEntity = entities.create(EntityStore.POSITION | EntityStore.VELOCITY | EntityStore.SPRITE);
+        entities.setPosition(playerEntity, 0, 0, player.getWidth(), player.getHeight());
+
+        guards.clear();
+        guards.add(new GuardVariant(level, GuardVariant.GuardType.STANDING, entities));
+        guards.add(new GuardVariant(level, GuardVariant.GuardType.MOVING, entities));
+
+        initialGuardX = new double[guards.size()];
+        initialGuardY = new double[guards.size()];
+        for (int i = 0; i < guards.size(); i++) {
+            int[] pos = guardPositions.get(i);
+            initialGuardX[i] = pos[0] * LevelGenerator.TILE_SIZE;
+            initialGuardY[i] = pos[1] * LevelGenerator.TILE_SIZE;
+            guards.get(i).setPosition(initialGuardX[i], initialGuardY[i]);
+        }
+
+        initialPlayerX = player.getDrawX(1);
+        initialPlayerY = player.getDrawY(1);
+
+        levelComplete = false;
+        spotted = false;
+        noise.clear();
+        search.clear();
+        influence.reset(level);
+        detectionCache.invalidate();
+        syncEntities();
+    }
+
+    private void emitNoise(double x, double y, int loudness, int kind) {
+        noise.emit((int) (x / LevelGenerator.TILE_SIZE), (int) (y / LevelGenerator.TILE_SIZE), loudness, kind);
+    }
+
+    private void syncEntities() {
+        TransformSystem.syncPlayer(entities, playerEntity, player);
+        TransformSystem.updateVelocities(entities);
+    }
+
+    // Extra patrolling guards on the current level, for stress runs; they are
+    // part of the level from here on and return to these spots on reset
+    public void addGuards(int count) {
+        int first = guards.size();
+        initialGuardX = Arrays.copyOf(initialGuardX, first + count);
+        initialGuardY = Arrays.copyOf(initialGuardY, first + count);
+        for (int i = first; i < first + count; i++) {
+            GuardVariant guard = new GuardVariant(level, GuardVariant.GuardType.MOVING, entities);
+            initialGuardX[i] = guard.getX();
+            initialGuardY[i] = guard.getY();
+            guards.add(guard);
+        }
+        detectionCache.invalidate();
+        syncEntities();
+    }
+
+    public void resetLevel() {
+        if (recording != null) recording.recordCommand(InputRecording.RESET);
+        spotted = false;
+
+        for (int x = 0; x < LevelGenerator.WIDTH; x++) {
+            for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
+                level.setTile(x, y, initialLevelState[x][y]);
+            }
+        }
+
+        player.setPosition(initialPlayerX, initialPlayerY);
+        for (int i = 0; i < guards.size(); i++) {
+            guards.get(i).setPosition(initialGuardX[i], initialGuardY[i]);
+        }
+        noise.clear();
+        search.clear();
+        detectionCache.invalidate();
+        syncEntities();
+    }
+
+    // Input for the next tick
+    public void setInput(InputSnapshot input) {
+        this.input = input;
+    }
+
+    public InputRecording startRecording() {
+        recording = new InputRecording(seed, classType);
+        return recording;
+    }
+
+    public void tick() {
+        tickCount++;
+        clock.advance();
+        if (recording != null) recording.recordTick(input.toBits());
+
+        if (!spotted) {
+            if (input.isHeld(Action.BOMB) && player.useCherryBomb(clock)) {
+                int bomb = CherryBombEffect.spawn(entities, player.getX(), player.getY(), clock.now());
+                cherryBombLayer.add(entities, entities.rowOf(bomb));
+                detectionCache.invalidate();
+                emitNoise(player.getX(), player.getY(), NoiseSystem.CHERRY_BOMB_LOUDNESS, NoiseSystem.CHERRY_BOMB);
+            }
+
+            player.update(level, clock, input);
+            if (player.getDrawX(1) != player.getDrawX(0) || player.getDrawY(1) != player.getDrawY(0)) {
+                int footsteps = (int) Math.round(NoiseSystem.FOOTSTEP_LOUDNESS
+                                                 * player.getStats().getFootstepMultiplier());
+                emitNoise(player.getX(), player.getY(), footsteps, NoiseSystem.FOOTSTEP);
+            }
+
+            guardUpdater.update(guards, level, clock);
+            noise.propagate(level);
+            noise.notifyGuards(guards, search, clock);
+            search.update(guards, clock);
+            aiScheduler.run(guards, search, clock);
+            influence.update(guards);
+
+            if (detectionCache.anyCanSee(player, guards, entities, cherryBombLayer)) {
+                spotted = true;
+                events.onSpotted();
+            }
+        }
+
+        if (isPlayerAtExit() && !levelComplete && input.isHeld(Action.INTERACT)) {
+            levelComplete = true;
+            events.onLevelComplete();
+        }
+
+        int expired = LifetimeSystem.update(entities, clock.now(), bombExpired);
+        if (expired > 0) detectionCache.invalidate();
+
+        syncEntities();
+    }
+
+    public boolean isPlayerAtExit() {
+        return level.isAtExit((int) (player.getX() / LevelGenerator.TILE_SIZE),
+                              (int) (player.getY() / LevelGenerator.TILE_SIZE));
+    }
+
+    public LevelGenerator getLevel() { return level; }
+    public Player getPlayer() { return player; }
+    public List<GuardVariant> getGuards() { return guards; }
+    public CherryBombLayer getCherryBombLayer() { return cherryBombLayer; }
+    public EntityStore getEntities() { return entities; }
+    public DetectionCache getDetectionCache() { return detectionCache; }
+    public AIScheduler getAIScheduler() { return aiScheduler; }
+    public NoiseSystem getNoise() { return noise; }
+    public SearchBlackboard getSearch() { return search; }
+    public InfluenceMap getInfluence() { return influence; }
+    public boolean isSpotted() { return spotted; }
+    public boolean isLevelComplete() { return levelComplete; }
+    public long getTickCount() { return tickCount; }
+    public GameClock getClock() { return clock; }
+    public long getSeed() { return seed; }
+    public String getClassType() { return classType; }
+    public InputSnapshot getInput() { return input; }
+}
@@ -0,0 +1,207 @@
+package Game;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import java.io.InputStream;
+
+// JavaFX side of the World: sprites, the tile map, bomb areas and the player HUD
+public class WorldRenderer {
+    private final Font statusFont = new Font("Arial Bold", 28);
+    private final Font cooldownFont = new Font("Arial", 16);
+
+    private final Image playerIdleImage;
+    private final Image playerRunImage;
+    private final Image guardIdleImage;
+    private final Image guardRunImage;
+    
+    private boolean dangerOverlay = false;
+
+    public WorldRenderer() {
+        this.playerIdleImage = loadImage("/sprites/idle.gif", Color.RED);
+        this.playerRunImage = loadImage("/sprites/run.gif", Color.RED);
+        this.guardIdleImage = loadImage("/sprites/enemyidle.gif", Color.ORANGE);
+        this.guardRunImage = loadImage("/sprites/enemyrun.gif", Color.ORANGE);
+    }
+
+    // Draws a published snapshot only; nothing here reads the live World
+    public void render(GraphicsContext gc, WorldSnapshot snapshot, double alpha) {
+        renderMap(gc, snapshot);
+        if (dangerOverlay) renderDanger(gc, snapshot);
+        for (int i = 0; i < snapshot.spriteCount; i++) {
+            renderSprite(gc, snapshot, i, alpha);
+        }
+        renderCherryBombs(gc, snapshot);
+    }
+
+    private void renderMap(GraphicsContext gc, WorldSnapshot snapshot) {
+        for (int x = 0; x < LevelGenerator.WIDTH; x++) {
+            for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
+                int tile = snapshot.getTile(x, y);
+                double px = x * LevelGenerator.TILE_SIZE;
+                double py = y * LevelGenerator.TILE_SIZE;
+
+                switch (tile) {
+                    case LevelGenerator.WALL:
+                        gc.setFill(Color.DARKGRAY);
+                        gc.fillRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
+                        gc.setStroke(Color.BLACK);
+                        gc.strokeRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
+                        break;
+                    case LevelGenerator.EXIT:
+                        gc.setFill(Color.GREEN);
+                        gc.fillRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
+                        break;
+                    case LevelGenerator.HIDEOBJ:
+                        gc.setFill(Color.SIENNA);
+                        gc.fillRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
+                        gc.setStroke(Color.BROWN);
+                        gc.strokeRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
+                        break;
+                    default:
+                        gc.setFill(Color.LIGHTGRAY);
+                        gc.fillRect(px, py, LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
+                }
+            }
+        }
+    }
+
+    private void renderSprite(GraphicsContext gc, WorldSnapshot snapshot, int i, double alpha) {
+        double drawX = lerp(snapshot.prevX[i], snapshot.x[i], alpha);
+        double drawY = lerp(snapshot.prevY[i], snapshot.y[i], alpha);
+        double width = snapshot.width[i];
+        double height = snapshot.height[i];
+        byte sprite = snapshot.sprite[i];
+
+        double radius = snapshot.visionRadius[i];
+        if (radius > 0) {
+            Color visionColor = (sprite == EntityStore.SPRITE_GUARD_STANDING) ?
+                Color.rgb(255, 0, 0, 0.2) : Color.rgb(255, 165, 0, 0.2);
+            double centerX = drawX + width / 2;
+            double centerY = drawY + height / 2;
+
+            gc.setFill(visionColor);
+            gc.fillOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
+        }
+
+        Image image;
+        if (sprite == EntityStore.SPRITE_PLAYER) {
+            image = snapshot.moving[i] ? playerRunImage : playerIdleImage;
+        } else {
+            image = snapshot.moving[i] ? guardRunImage : guardIdleImage;
+        }
+        gc.drawImage(image, drawX, drawY, width, height);
+    }
+
+    private void renderCherryBombs(GraphicsContext gc, WorldSnapshot snapshot) {
+        if (!snapshot.anyBombs) return;
+
+        for (int ty = 0; ty < LevelGenerator.HEIGHT; ty++) {
+            for (int tx = 0; tx < LevelGenerator.WIDTH; tx++) {
+                float strength = snapshot.bombStrength[ty * LevelGenerator.WIDTH + tx];
+                if (strength <= 0) continue;
+
+                gc.setFill(Color.rgb(255, 100, 100, 0.6 * strength));
+                gc.fillRect(tx * LevelGenerator.TILE_SIZE, ty * LevelGenerator.TILE_SIZE,
+                            LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
+            }
+        }
+    }
+
+    private void renderDanger(GraphicsContext gc, WorldSnapshot snapshot) {
+        for (int ty = 0; ty < LevelGenerator.HEIGHT; ty++) {
+            for (int tx = 0; tx < LevelGenerator.WIDTH; tx++) {
+                float danger = snapshot.danger[ty * LevelGenerator.WIDTH + tx];
+                if (danger <= 0 || snapshot.getTile(tx, ty) == LevelGenerator.WALL) continue;
+
+                gc.setFill(Color.rgb(255, (int) (200 * (1 - danger)), 0, 0.45 * danger));
+                gc.fillRect(tx * LevelGenerator.TILE_SIZE, ty * LevelGenerator.TILE_SIZE,
+                            LevelGenerator.TILE_SIZE, LevelGenerator.TILE_SIZE);
+            }
+        }
+    }
+
+    public void toggleDangerOverlay() {
+        dangerOverlay = !dangerOverlay;
+    }
+
+    public void renderHUD(GraphicsContext gc, WorldSnapshot snapshot, double canvasWidth) {
+        if (snapshot.playerNearHideable && !snapshot.playerHidden && !snapshot.playerInCooldown) {
+            renderCenteredText(gc, "PRESS [H] TO HIDE", Color.YELLOW, canvasWidth, 50);
+        }
+
+        if (snapshot.playerHidden) {
+            renderCenteredText(gc, "HIDDEN (PRESS [H] TO UNHIDE)", Color.GREEN, canvasWidth, 50);
+        }
+
+        if (snapshot.playerInCooldown) {
+            double cooldownProgress = snapshot.cooldownProgress;
+
+            gc.setFill(Color.rgb(100, 100, 100, 0.7));
+            gc.fillRoundRect((canvasWidth - 200)/2, 80, 200, 15, 10, 10);
+
+            gc.setFill(Color.rgb(255, (int)(255 * (1 - cooldownProgress)), 0));
+            gc.fillRoundRect((canvasWidth - 200)/2, 80, 200 * cooldownProgress, 15, 10, 10);
+
+            gc.setFont(cooldownFont);
+            gc.setFill(Color.WHITE);
+            gc.fillText("Hiding cooldown: " + (int)(cooldownProgress * 100) + "%",
+                       (canvasWidth - 150)/2, 75);
+        }
+
+        gc.setFont(cooldownFont);
+        gc.setFill(Color.PINK);
+        gc.fillText("Cherry Bombs: " + snapshot.cherryBombs + "/" + snapshot.maxCherryBombs, 20, 30);
+        if (dangerOverlay) {
+            gc.fillText("Danger map [O]", 20, 50);
+        }
+    }
+
+    private static double lerp(double from, double to, double alpha) {
+        return from + (to - from) * alpha;
+    }
+
+    private void renderCenteredText(GraphicsContext gc, String text,
+                                  Color color, double canvasWidth, double yPos) {
+        gc.setFont(statusFont);
+        gc.setFill(color);
+        double textWidth = gc.getFont().getSize() * text.length() * 0.5;
+        double xPos = (canvasWidth - textWidth)/2;
+
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(3);
+        gc.strokeText(text, xPos, yPos);
+
+        gc.setFill(color);
+        gc.fillText(text, xPos, yPos);
+    }
+
+    private Image loadImage(String path, Color placeholderColor) {
+        try {
+            InputStream is = getClass().getResourceAsStream(path);
+            if (is != null) {
+                return new Image(is);
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading image: " + path);
+            e.printStackTrace();
+        }
+        return createPlaceholderImage(placeholderColor);
+    }
+
+    private Image createPlaceholderImage(Color color) {
+        WritableImage img = new WritableImage(32, 32);
+        PixelWriter pw = img.getPixelWriter();
+
+        for (int px = 0; px < 32; px++) {
+            for (int py = 0; py < 32; py++) {
+                pw.setColor(px, py, color);
+            }
+        }
+        return img;
+    }
+}
@@ -0,0 +1,121 @@
+package Game;
+
+// Everything the renderer needs from one simulation tick, copied out of the World
+// so the FX thread never reads live simulation state. Instances are recycled by
+// SnapshotBuffer: the simulation fills one, publishes it, and from then on it is
+// read-only until the buffer hands it back for reuse.
+public class WorldSnapshot {
+    private static final int TILE_COUNT = LevelGenerator.WIDTH * LevelGenerator.HEIGHT;
+
+    final int[] tiles = new int[TILE_COUNT];
+    // Cherry bomb strength per tile, 0 where no bomb covers it
+    final float[] bombStrength = new float[TILE_COUNT];
+    boolean anyBombs;
+    // InfluenceMap danger per tile, 0..1
+    final float[] danger = new float[TILE_COUNT];
+
+    boolean playerHidden, playerNearHideable, playerInCooldown;
+    double cooldownProgress;
+    int cherryBombs, maxCherryBombs;
+
+    // Visible sprites from the EntityStore, in entity order
+    int spriteCount;
+    double[] prevX = new double[0];
+    double[] prevY = new double[0];
+    double[] x = new double[0];
+    double[] y = new double[0];
+    double[] width = new double[0];
+    double[] height = new double[0];
+    double[] visionRadius = new double[0];
+    byte[] sprite = new byte[0];
+    boolean[] moving = new boolean[0];
+
+    boolean spotted, levelComplete, atExit, paused;
+    long tick;
+    long publishNanos;
+
+    void copyFrom(World world, boolean paused) {
+        LevelGenerator level = world.getLevel();
+        for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
+            for (int x = 0; x < LevelGenerator.WIDTH; x++) {
+                tiles[y * LevelGenerator.WIDTH + x] = level.getTile(x, y);
+            }
+        }
+
+        long now = world.getClock().now();
+        CherryBombLayer bombs = world.getCherryBombLayer();
+        anyBombs = !bombs.isEmpty();
+        if (anyBombs) {
+            for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
+                for (int x = 0; x < LevelGenerator.WIDTH; x++) {
+                    bombStrength[y * LevelGenerator.WIDTH + x] = (float) bombs.getStrength(x, y, now);
+                }
+            }
+        }
+
+        InfluenceMap influence = world.getInfluence();
+        for (int y = 0; y < LevelGenerator.HEIGHT; y++) {
+            for (int x = 0; x < LevelGenerator.WIDTH; x++) {
+                danger[y * LevelGenerator.WIDTH + x] = (float) influence.getDanger(x, y);
+            }
+        }
+
+        Player player = world.getPlayer();
+        playerHidden = player.isHidden();
+        playerNearHideable = player.isNearHideable();
+        playerInCooldown = player.isInCooldown();
+        cooldownProgress = 1 - Math.min(1.0,
+            (double) (now - player.getLastHideTime()) / player.getStats().getHideCooldownMs());
+        cherryBombs = player.getCherryBombs();
+        maxCherryBombs = player.getMaxCherryBombs();
+
+        EntityStore entities = world.getEntities();
+        ensureSpriteCapacity(entities.size());
+        spriteCount = 0;
+        for (int row = 0; row < entities.size(); row++) {
+            if (!entities.has(row, EntityStore.SPRITE) || entities.sprite[row] == EntityStore.SPRITE_NONE) continue;
+
+            int i = spriteCount++;
+            prevX[i] = entities.prevX[row];
+            prevY[i] = entities.prevY[row];
+            x[i] = entities.x[row];
+            y[i] = entities.y[row];
+            width[i] = entities.width[row];
+            height[i] = entities.height[row];
+            visionRadius[i] = entities.has(row, EntityStore.VISION) ? entities.visionRadius[row] : 0;
+            sprite[i] = entities.sprite[row];
+            moving[i] = entities.velX[row] != 0 || entities.velY[row] != 0;
+        }
+
+        spotted = world.isSpotted();
+        levelComplete = world.isLevelComplete();
+        atExit = world.isPlayerAtExit();
+        this.paused = paused;
+        tick = world.getTickCount();
+        publishNanos = System.nanoTime();
+    }
+
+    void ensureSpriteCapacity(int count) {
+        if (x.length >= count) return;
+
+        int capacity = Math.max(count, x.length * 2);
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        width = new double[capacity];
+        height = new double[capacity];
+        visionRadius = new double[capacity];
+        sprite = new byte[capacity];
+        moving = new boolean[capacity];
+    }
+
+    public int getTile(int x, int y) {
+        return tiles[y * LevelGenerator.WIDTH + x];
+    }
+
+    public boolean isSpotted() { return spotted; }
+    public boolean isLevelComplete() { return levelComplete; }
+    public boolean isPaused() { return paused; }
+    public boolean isAtExit() { return atExit; }
+}